@@ -0,0 +1,108 @@
+package algorithms;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests the same random edge list into a ConcurrentUnionFind with 1 to 32 threads, and into a
+ * WeightedQuickUnionPathCompression from a single thread as the baseline. Each thread takes a
+ * contiguous slice of the edges. The ratio between the threads=1 score and the others is the
+ * speedup, the baseline shows what the atomic operations cost when there is no contention.
+ * parallelComponents runs the whole labelling (batch union, then dense labels) on the pool.
+ * <p>
+ * The edges and the pool are separate states, so sequentialUnion, which only uses the edges, is
+ * measured once instead of once per value of threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrentUnionFindBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Edges {
+        @Param({"1000000"})
+        public int n;
+
+        @Param({"4000000"})
+        public int edges;
+
+        private int[] ps;
+        private int[] qs;
+
+        @Setup(Level.Trial)
+        public void createEdges() {
+            var random = new SplittableRandom(n);
+            ps = new int[edges];
+            qs = new int[edges];
+            for (var i = 0; i < edges; i++) {
+                ps[i] = random.nextInt(n);
+                qs[i] = random.nextInt(n);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+        @Param({"1", "2", "4", "8", "16", "32"})
+        public int threads;
+
+        private ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void createPool() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdownPool() {
+            pool.shutdown();
+        }
+    }
+
+    // One task per thread, each submitted to the pool and joined, so every slice runs on a
+    // worker of the pool being measured
+    @Benchmark
+    public int concurrentUnion(Edges edges, Pool pool) {
+        var unionFind = new ConcurrentUnionFind(edges.n);
+        int threads = pool.threads;
+        int slice = (edges.edges + threads - 1) / threads;
+
+        var tasks = new ForkJoinTask<?>[threads];
+        for (var t = 0; t < threads; t++) {
+            int start = t * slice;
+            int end = Math.min(edges.edges, start + slice);
+            tasks[t] = pool.pool.submit(() -> {
+                for (var i = start; i < end; i++) {
+                    unionFind.union(edges.ps[i], edges.qs[i]);
+                }
+            });
+        }
+        for (var task : tasks) {
+            task.join();
+        }
+
+        return unionFind.getCount();
+    }
+
+    @Benchmark
+    public int[] parallelComponents(Edges edges, Pool pool) {
+        var unionFind = new ConcurrentUnionFind(edges.n);
+        unionFind.union(edges.ps, edges.qs, pool.pool);
+        return unionFind.components(pool.pool);
+    }
+
+    @Benchmark
+    public int sequentialUnion(Edges edges) {
+        var unionFind = new WeightedQuickUnionPathCompression(edges.n);
+        for (var i = 0; i < edges.edges; i++) {
+            unionFind.union(edges.ps[i], edges.qs[i]);
+        }
+        return unionFind.getCount();
+    }
+}
@@ -0,0 +1,31 @@
+package algorithms.sorting;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result comes with its allocation
+ * rate (gc.alloc.rate.norm is the number of bytes allocated per sort). Accepts the same arguments
+ * as the JMH command line, for example:
+ *  - java -cp target/benchmarks.jar algorithms.sorting.BenchmarkRunner BoxedSortBenchmark -p size=1000
+ * When no benchmark is given, all the benchmarks are run.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var commandLine = new CommandLineOptions(args);
+        var options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("algorithms\\..*Benchmark");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package algorithms.sorting;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sorts Integer[] inputs with every Comparable-based sorter in this package. The input is
+ * generated once per trial, and copied at the start of each invocation into a working array
+ * that is also allocated once per trial, so the copy adds the same linear cost to every sorter,
+ * and nothing to the allocation rate reported by -prof gc.
+ * <p>
+ * The quadratic sorters (insertion and selection) take seconds per invocation on 100k
+ * elements, narrow the run with -p sorter=... -p size=... when they are not needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BoxedSortBenchmark {
+
+    public enum Sorter {
+        INSERTION(Insertion::sort),
+        INSERTION_SHIFT(Insertion::sortShift),
+        SELECTION(Selection::sort),
+        SHELL(ShellSort::sort),
+        HEAP(HeapSort::sort),
+        MERGE(MergeSort::sort),
+        MERGE_IN_PLACE(MergeSort::inPlace),
+        MERGE_WITH_BUFFER(MergeSort::withBuffer),
+        MERGE_BOTTOM_UP(MergeSort::bottomUp),
+        NATURAL_MERGE(NaturalMergeSort::sort),
+        QUICK(QuickSort::sort),
+        QUICK_INTRO(QuickSort::introSort),
+        QUICK_3WAY(QuickSort::sort3Way),
+        QUICK_DUAL_PIVOT(QuickSort::sortDualPivot),
+        QUICK_PARALLEL(QuickSort::parallelSort),
+        MERGE_PARALLEL(ParallelMergeSort::sort);
+
+        private final Consumer<Integer[]> method;
+
+        Sorter(Consumer<Integer[]> method) {
+            this.method = method;
+        }
+    }
+
+    @Param
+    public Sorter sorter;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param
+    public Distribution distribution;
+
+    private Integer[] source;
+    private Integer[] arr;
+
+    @Setup(Level.Trial)
+    public void createInput() {
+        source = distribution.generateBoxed(size);
+        arr = new Integer[size];
+    }
+
+    // The copy is part of the measurement: with Level.Invocation, the setup costs more than
+    // sorting the 1000 element arrays. Copying is linear, and the same for every sorter
+    @Benchmark
+    public Integer[] sort() {
+        System.arraycopy(source, 0, arr, 0, size);
+        sorter.method.accept(arr);
+        return arr;
+    }
+}
@@ -0,0 +1,63 @@
+package algorithms.sorting;
+
+import java.util.SplittableRandom;
+
+/**
+ * Key distributions used by the sorting benchmarks. Every distribution is generated from a
+ * fixed seed, so two forks (or two runs on different machines) sort exactly the same input.
+ *  - RANDOM: uniformly distributed keys over the whole int range, few or no duplicates
+ *  - FEW_UNIQUE: keys drawn from a small range, so most of them are duplicates
+ *  - SORTED: already in ascending order, the worst case for a first-element pivot
+ *  - REVERSED: in descending order
+ *  - NEARLY_SORTED: ascending, with 1% of the entries swapped at random positions
+ */
+public enum Distribution {
+    RANDOM,
+    FEW_UNIQUE,
+    SORTED,
+    REVERSED,
+    NEARLY_SORTED;
+
+    private static final long SEED = 0x5EED_5EEDL;
+
+    public int[] generate(int size) {
+        var random = new SplittableRandom(SEED);
+        var arr = new int[size];
+
+        switch (this) {
+            case RANDOM -> {
+                for (var i = 0; i < size; i++) arr[i] = random.nextInt();
+            }
+            case FEW_UNIQUE -> {
+                for (var i = 0; i < size; i++) arr[i] = random.nextInt(16);
+            }
+            case SORTED -> {
+                for (var i = 0; i < size; i++) arr[i] = i;
+            }
+            case REVERSED -> {
+                for (var i = 0; i < size; i++) arr[i] = size - i;
+            }
+            case NEARLY_SORTED -> {
+                for (var i = 0; i < size; i++) arr[i] = i;
+                for (var n = 0; n < size / 100; n++) {
+                    int i = random.nextInt(size);
+                    int j = random.nextInt(size);
+                    int tmp = arr[i];
+                    arr[i] = arr[j];
+                    arr[j] = tmp;
+                }
+            }
+        }
+
+        return arr;
+    }
+
+    public Integer[] generateBoxed(int size) {
+        var arr = generate(size);
+        var boxed = new Integer[size];
+        for (var i = 0; i < size; i++) {
+            boxed[i] = arr[i];
+        }
+        return boxed;
+    }
+}
@@ -0,0 +1,80 @@
+package algorithms.sorting;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts a file of random ints that is larger than the memory budget, for a few budgets and
+ * fan-ins. Besides the number of sorts per second, it reports the throughput in MB of input per
+ * second (the megabytes counter), which is the number to compare with the disk bandwidth.
+ * The runs go to the default temp directory, set java.io.tmpdir to put them on another disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ExternalSortBenchmark {
+
+    @Param({"4000000", "32000000"})
+    public int size;
+
+    @Param({"4194304", "33554432"})
+    public long memoryBudget;
+
+    @Param({"8", "64"})
+    public int fanIn;
+
+    private Path directory;
+    private Path input;
+    private Path output;
+    private ExternalSort externalSort;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createInput() throws IOException {
+        directory = Files.createTempDirectory("external-sort");
+        input = directory.resolve("input.bin");
+        output = directory.resolve("output.bin");
+        externalSort = new ExternalSort(memoryBudget, fanIn, directory);
+
+        var random = new SplittableRandom(42);
+        try (var data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(input)))) {
+            for (var i = 0; i < size; i++) {
+                data.writeInt(random.nextInt());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long sortInts(Throughput throughput) throws IOException {
+        long count = externalSort.sortInts(input, output);
+        throughput.megabytes += count * Integer.BYTES / 1e6;
+        return count;
+    }
+}
@@ -0,0 +1,78 @@
+package algorithms.sorting;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the parallel sorts on dedicated pools of increasing size, the ratio between the
+ * threads=1 score and the others is the speedup on the machine running the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParallelSortBenchmark {
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    @Param({"10000000"})
+    public int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private ForkJoinPool pool;
+    private int[] source;
+    private int[] arr;
+    private Integer[] boxedSource;
+    private Integer[] boxed;
+
+    @Setup(Level.Trial)
+    public void createInput() {
+        pool = new ForkJoinPool(threads);
+        source = distribution.generate(size);
+        arr = new int[size];
+        boxedSource = distribution.generateBoxed(size);
+        boxed = new Integer[size];
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetInput() {
+        System.arraycopy(source, 0, arr, 0, size);
+        System.arraycopy(boxedSource, 0, boxed, 0, size);
+    }
+
+    @Benchmark
+    public int[] quickSortPrimitive() {
+        QuickSort.parallelSort(arr, pool);
+        return arr;
+    }
+
+    @Benchmark
+    public Integer[] quickSortBoxed() {
+        QuickSort.parallelSort(boxed, pool);
+        return boxed;
+    }
+
+    @Benchmark
+    public int[] mergeSortPrimitive() {
+        ParallelMergeSort.sort(arr, pool);
+        return arr;
+    }
+
+    @Benchmark
+    public Integer[] mergeSortBoxed() {
+        ParallelMergeSort.sort(boxed, pool);
+        return boxed;
+    }
+}
@@ -0,0 +1,74 @@
+package algorithms.sorting;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The int[] counterpart of {@link BoxedSortBenchmark}, with Arrays.sort as the baseline. Comparing
+ * both reports for the same size and distribution shows what boxing costs each algorithm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PrimitiveSortBenchmark {
+
+    public enum Sorter {
+        INSERTION(Insertion::sort),
+        SELECTION(Selection::sort),
+        SHELL(ShellSort::sort),
+        HEAP(HeapSort::sort),
+        MERGE(MergeSort::sort),
+        MERGE_WITH_BUFFER(MergeSort::withBuffer),
+        MERGE_BOTTOM_UP(MergeSort::bottomUp),
+        NATURAL_MERGE(NaturalMergeSort::sort),
+        QUICK(QuickSort::sort),
+        QUICK_INTRO(QuickSort::introSort),
+        QUICK_3WAY(QuickSort::sort3Way),
+        QUICK_DUAL_PIVOT(QuickSort::sortDualPivot),
+        QUICK_PARALLEL(QuickSort::parallelSort),
+        MERGE_PARALLEL(ParallelMergeSort::sort),
+        MERGE_VARIATION(MergeSortVariation::sort),
+        MERGE_VARIATION_OPTIMISED(MergeSortVariation::sortOptimised),
+        RADIX(RadixSort::sort),
+        ARRAYS_SORT(Arrays::sort);
+
+        private final Consumer<int[]> method;
+
+        Sorter(Consumer<int[]> method) {
+            this.method = method;
+        }
+    }
+
+    @Param
+    public Sorter sorter;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param
+    public Distribution distribution;
+
+    private int[] source;
+    private int[] arr;
+
+    @Setup(Level.Trial)
+    public void createInput() {
+        source = distribution.generate(size);
+        arr = new int[size];
+    }
+
+    // The copy is part of the measurement: with Level.Invocation, the setup costs more than
+    // sorting the 1000 element arrays. Copying is linear, and the same for every sorter
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, arr, 0, size);
+        sorter.method.accept(arr);
+        return arr;
+    }
+}
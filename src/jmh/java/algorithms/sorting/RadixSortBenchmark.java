@@ -0,0 +1,122 @@
+package algorithms.sorting;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares RadixSort with Arrays.sort and QuickSort on the same keys: int[], long[] and String[]
+ * ids with a fixed prefix. The radix sorts get a buffer allocated once per trial, so the scores
+ * show the sort itself and the allocation rate stays at zero. Each benchmark copies the one
+ * source array it sorts at the start of the call, like the other sort benchmarks: the copy is
+ * linear and the same for every sorter of a type, while a Level.Invocation setup would cost more
+ * than the 100000 element sorts themselves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RadixSortBenchmark {
+
+    @Param({"100000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private int[] intSource;
+    private int[] ints;
+    private int[] intBuffer;
+    private long[] longSource;
+    private long[] longs;
+    private long[] longBuffer;
+    private String[] stringSource;
+    private String[] strings;
+    private String[] stringBuffer;
+
+    @Setup(Level.Trial)
+    public void createInput() {
+        intSource = distribution.generate(size);
+        ints = new int[size];
+        intBuffer = new int[size];
+
+        var random = new SplittableRandom(size);
+        longSource = new long[size];
+        stringSource = new String[size];
+        for (var i = 0; i < size; i++) {
+            longSource[i] = ((long) intSource[i] << 32) | random.nextInt();
+            stringSource[i] = String.format("ID-%010d", intSource[i] & Integer.MAX_VALUE);
+        }
+        longs = new long[size];
+        longBuffer = new long[size];
+        strings = new String[size];
+        stringBuffer = new String[size];
+    }
+
+    @Benchmark
+    public int[] intRadixSort() {
+        System.arraycopy(intSource, 0, ints, 0, size);
+        RadixSort.sort(ints, intBuffer);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] intArraysSort() {
+        System.arraycopy(intSource, 0, ints, 0, size);
+        Arrays.sort(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] intQuickSort() {
+        System.arraycopy(intSource, 0, ints, 0, size);
+        QuickSort.sort(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public long[] longRadixSort() {
+        System.arraycopy(longSource, 0, longs, 0, size);
+        RadixSort.sort(longs, longBuffer);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] longArraysSort() {
+        System.arraycopy(longSource, 0, longs, 0, size);
+        Arrays.sort(longs);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] longQuickSort() {
+        System.arraycopy(longSource, 0, longs, 0, size);
+        QuickSort.sort(longs);
+        return longs;
+    }
+
+    @Benchmark
+    public String[] stringRadixSort() {
+        System.arraycopy(stringSource, 0, strings, 0, size);
+        RadixSort.sort(strings, stringBuffer);
+        return strings;
+    }
+
+    @Benchmark
+    public String[] stringArraysSort() {
+        System.arraycopy(stringSource, 0, strings, 0, size);
+        Arrays.sort(strings);
+        return strings;
+    }
+
+    @Benchmark
+    public String[] stringQuickSort() {
+        System.arraycopy(stringSource, 0, strings, 0, size);
+        QuickSort.sort(strings);
+        return strings;
+    }
+}
@@ -0,0 +1,193 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * A union-find that many threads can use at the same time, without locks. The parent links are
+ * kept in an AtomicIntegerArray, and every change to the forest is a single compareAndSet, so no
+ * thread ever waits for another one to finish.
+ *  - union links one root under the other with a CAS that expects the root to still be a root.
+ *  If another thread linked it first, the CAS fails and union looks for the roots again
+ *  - roots are linked in a fixed order, the root with the lower priority always goes under the
+ *  one with the higher priority, so two threads can never link two roots under each other and
+ *  create a cycle. Priorities are a hash of the index, which behaves like a random order
+ *  (randomized linking), so the trees stay shallow without keeping sizes or ranks, and the
+ *  ties are broken by index
+ *  - find compresses the path with halving, each step is a CAS that only ever moves a node
+ *  closer to its root. When it fails, another thread already changed the link, and find just
+ *  carries on, so it never retries and never blocks
+ *  - connected is linearizable: after finding the two roots, if they are different and the
+ *  first one is still a root, both were roots (so not connected) at the moment the second
+ *  root was found. Otherwise the forest changed in the meantime, and it tries again
+ * <p>
+ * Each operation has the same result it would have if it was executed on its own at some point
+ * between its call and its return, so the answers are the same as the ones from a single thread
+ * calling the operations in some order. getCount is exact once there are no unions in progress.
+ * <p>
+ * For whole edge lists, union(ps, qs, pool) splits the edges in slices and unions each slice in
+ * its own fork/join task. The usual way of doing this with a single-threaded union-find is to give
+ * each worker its own forest, and merge the forests at the end, which costs O(N) per worker. Here
+ * the workers can link straight into the same forest, so the partial forests are merged as they
+ * are built, and there is nothing left to do once the last task finishes.
+ */
+public class ConcurrentUnionFind implements UnionFind {
+    // Ranges of this size or less are processed by a single task
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private final AtomicIntegerArray ids;
+    private final int n;
+    private final LongAdder unions = new LongAdder();
+
+    public ConcurrentUnionFind(int n) {
+        this.n = n;
+        ids = new AtomicIntegerArray(n);
+        for (var i = 0; i < n; i++) {
+            ids.set(i, i);
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int getCount() {
+        return n - unions.intValue();
+    }
+
+    // Returns the root of the tree to which the component p belongs, halving the path on the way
+    public int find(int p) {
+        validate(p);
+
+        int parent = ids.get(p);
+        while (p != parent) {
+            int grandparent = ids.get(parent);
+            if (parent != grandparent) {
+                ids.compareAndSet(p, parent, grandparent);
+            }
+            p = grandparent;
+            parent = ids.get(p);
+        }
+        return p;
+    }
+
+    public boolean connected(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) return true;
+            if (ids.get(rootP) == rootP) return false;
+        }
+    }
+
+    public void union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) return;
+
+            boolean linked = isLower(rootP, rootQ)
+                    ? ids.compareAndSet(rootP, rootP, rootQ)
+                    : ids.compareAndSet(rootQ, rootQ, rootP);
+
+            if (linked) {
+                unions.increment();
+                return;
+            }
+        }
+    }
+
+    public void union(int[] ps, int[] qs, ForkJoinPool pool) {
+        validatePairs(ps, qs);
+        pool.invoke(new RangeTask(0, ps.length, i -> union(ps[i], qs[i])));
+    }
+
+    // Same labels as components(), with the roots of all the elements found in parallel
+    public int[] components(ForkJoinPool pool) {
+        var labels = new int[n];
+        pool.invoke(new RangeTask(0, n, i -> labels[i] = find(i)));
+
+        var rootLabels = new int[n];
+        Arrays.fill(rootLabels, -1);
+        var next = 0;
+        for (var i = 0; i < n; i++) {
+            int root = labels[i];
+            if (rootLabels[root] == -1) {
+                rootLabels[root] = next++;
+            }
+            labels[i] = rootLabels[root];
+        }
+        return labels;
+    }
+
+    // Labels the connected components of the graph with n vertices and the edges (ps[i], qs[i]),
+    // using every core through the common pool
+    public static int[] connectedComponents(int n, int[] ps, int[] qs) {
+        var unionFind = new ConcurrentUnionFind(n);
+        unionFind.union(ps, qs, ForkJoinPool.commonPool());
+        return unionFind.components(ForkJoinPool.commonPool());
+    }
+
+    @SuppressWarnings("serial")
+    private static class RangeTask extends RecursiveAction {
+        private final int start;
+        private final int end;
+        private final IntConsumer action;
+
+        RangeTask(int start, int end, IntConsumer action) {
+            this.start = start;
+            this.end = end;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                for (var i = start; i < end; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+
+            int middle = start + (end - start) / 2;
+            invokeAll(new RangeTask(start, middle, action), new RangeTask(middle, end, action));
+        }
+    }
+
+    private static boolean isLower(int p, int q) {
+        int priorityP = priority(p);
+        int priorityQ = priority(q);
+        return priorityP < priorityQ || (priorityP == priorityQ && p < q);
+    }
+
+    // A bijective mix of the bits of the index (the finalizer of MurmurHash3)
+    private static int priority(int p) {
+        p ^= p >>> 16;
+        p *= 0x85ebca6b;
+        p ^= p >>> 13;
+        p *= 0xc2b2ae35;
+        p ^= p >>> 16;
+        return p;
+    }
+
+    private static void validatePairs(int[] ps, int[] qs) {
+        if (ps.length != qs.length) {
+            throw new IllegalArgumentException("ps has " + ps.length + " elements, but qs has " + qs.length);
+        }
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n - 1));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Array: " + ids;
+    }
+}
@@ -0,0 +1,107 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * The other union-find implementations are created with a fixed number of elements. This one
+ * starts with n elements (possibly none) and grows as elements are added, numbering them in the
+ * order they arrive. The parent and size arrays double in capacity when they are full, so adding
+ * an element is amortized O(1): each copy of k elements pays for the next k additions.
+ * <p>
+ * Otherwise it is the same as WeightedQuickUnionPathCompression with halving: union by size and
+ * path halving in find. To union elements identified by longs or objects instead of indexes, see
+ * LongKeyedUnionFind and KeyedUnionFind.
+ */
+public class DynamicUnionFind implements UnionFind {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] ids;
+    private int[] sizes;
+    private int n;
+    private int count;
+
+    public DynamicUnionFind() {
+        this(0);
+    }
+
+    public DynamicUnionFind(int n) {
+        ids = new int[Math.max(n, DEFAULT_CAPACITY)];
+        sizes = new int[ids.length];
+        for (var i = 0; i < n; i++) {
+            add();
+        }
+    }
+
+    // Adds a new element in its own component, and returns its index
+    public int add() {
+        if (n == ids.length) {
+            grow();
+        }
+
+        ids[n] = n;
+        sizes[n] = 1;
+        count++;
+        return n++;
+    }
+
+    private void grow() {
+        if (ids.length == MAX_CAPACITY) {
+            throw new IllegalStateException("cannot add more than " + MAX_CAPACITY + " elements");
+        }
+
+        var capacity = (int) Math.min((long) ids.length * 2, MAX_CAPACITY);
+        ids = Arrays.copyOf(ids, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Returns the root of the tree to which the component p belongs, halving the path on the way
+    public int find(int p) {
+        validate(p);
+        while (p != ids[p]) {
+            ids[p] = ids[ids[p]];
+            p = ids[p];
+        }
+        return p;
+    }
+
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    public void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) return;
+
+        // Make smaller root point to the larger one
+        if (sizes[rootP] < sizes[rootQ]) {
+            ids[rootP] = rootQ;
+            sizes[rootQ] += sizes[rootP];
+        } else {
+            ids[rootQ] = rootP;
+            sizes[rootP] += sizes[rootQ];
+        }
+        count--;
+    }
+
+    @Override
+    public String toString() {
+        return "Array: " + Arrays.toString(Arrays.copyOf(ids, n)) + "\n" +
+                "Sizes: " + Arrays.toString(Arrays.copyOf(sizes, n));
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n - 1));
+        }
+    }
+}
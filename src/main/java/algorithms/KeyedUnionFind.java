@@ -0,0 +1,54 @@
+package algorithms;
+
+import utils.ObjectIndexMap;
+
+import java.util.Arrays;
+
+/**
+ * The object key version of LongKeyedUnionFind: keys are compared with equals, and are given an
+ * index the first time they are seen. Keys cannot be null.
+ */
+public class KeyedUnionFind<K> {
+    private final ObjectIndexMap<K> indexes = new ObjectIndexMap<>();
+    private final DynamicUnionFind unionFind = new DynamicUnionFind();
+    private Object[] keys = new Object[16];
+
+    // Returns the index of key, adding it as a new element when it is not there yet
+    public int indexOf(K key) {
+        int index = indexes.putIfAbsent(key, unionFind.size());
+        if (index >= 0) return index;
+
+        index = unionFind.add();
+        if (index == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[index] = key;
+        return index;
+    }
+
+    public int size() {
+        return unionFind.size();
+    }
+
+    public int getCount() {
+        return unionFind.getCount();
+    }
+
+    // Returns the key at the root of the component of key
+    @SuppressWarnings("unchecked")
+    public K find(K key) {
+        return (K) keys[unionFind.find(indexOf(key))];
+    }
+
+    public boolean connected(K p, K q) {
+        if (p.equals(q)) return true;
+
+        int indexP = indexes.get(p);
+        int indexQ = indexes.get(q);
+        return indexP >= 0 && indexQ >= 0 && unionFind.connected(indexP, indexQ);
+    }
+
+    public void union(K p, K q) {
+        unionFind.union(indexOf(p), indexOf(q));
+    }
+}
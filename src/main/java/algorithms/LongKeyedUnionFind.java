@@ -0,0 +1,58 @@
+package algorithms;
+
+import utils.LongIndexMap;
+
+import java.util.Arrays;
+
+/**
+ * A union-find over arbitrary long keys (entity ids, timestamps, hashes...), which do not need
+ * to be known in advance. Each key is given an index the first time it is seen, through a
+ * LongIndexMap, and the components are kept in a DynamicUnionFind over those indexes. The keys
+ * of each index are kept too, so find can return a key. Nothing is boxed and nothing has to be
+ * sized up front.
+ *  - union and find add the keys they have not seen yet
+ *  - connected does not add anything, a key that was never seen is only connected to itself
+ */
+public class LongKeyedUnionFind {
+    private final LongIndexMap indexes = new LongIndexMap();
+    private final DynamicUnionFind unionFind = new DynamicUnionFind();
+    private long[] keys = new long[16];
+
+    // Returns the index of key, adding it as a new element when it is not there yet
+    public int indexOf(long key) {
+        int index = indexes.putIfAbsent(key, unionFind.size());
+        if (index >= 0) return index;
+
+        index = unionFind.add();
+        if (index == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[index] = key;
+        return index;
+    }
+
+    public int size() {
+        return unionFind.size();
+    }
+
+    public int getCount() {
+        return unionFind.getCount();
+    }
+
+    // Returns the key at the root of the component of key
+    public long find(long key) {
+        return keys[unionFind.find(indexOf(key))];
+    }
+
+    public boolean connected(long p, long q) {
+        if (p == q) return true;
+
+        int indexP = indexes.get(p);
+        int indexQ = indexes.get(q);
+        return indexP >= 0 && indexQ >= 0 && unionFind.connected(indexP, indexQ);
+    }
+
+    public void union(long p, long q) {
+        unionFind.union(indexOf(p), indexOf(q));
+    }
+}
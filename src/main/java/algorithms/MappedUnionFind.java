@@ -0,0 +1,248 @@
+package algorithms;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A weighted quick union with path halving, like WeightedQuickUnionPathCompression, whose parent
+ * and size arrays are kept in a memory-mapped file instead of the heap. The heap only holds the
+ * buffer objects, so the number of elements is limited by the disk and the address space, not
+ * by -Xmx: 2 billion elements take 16 GB of file, paged in and out by the operating system.
+ * <p>
+ * A single MappedByteBuffer cannot be larger than 2 GB, so each array is mapped as a list of
+ * chunks of 2^28 ints (1 GB), and index i is found in chunk i >>> 28, at position i & (2^28 - 1).
+ * <p>
+ * File layout (little endian):
+ *  - header: magic number, n, count, dirty flag (16 bytes)
+ *  - the parent of each element (4n bytes)
+ *  - the size of each root (4n bytes)
+ * <p>
+ * Writes go to the page cache, and the operating system writes them to the file in the
+ * background. checkpoint() forces everything to disk and records the count in the header, so a
+ * long job can call it every so often and, after a restart, reopen the file with open() and
+ * carry on from there without replaying the unions. Every single write leaves a valid forest
+ * (a link always points to a node that stopped being a root later, or never did), so even a
+ * file that was not checkpointed can be reopened: the dirty flag tells open() to recount the
+ * components. Sizes can lag behind in that case, which only affects how balanced the next links
+ * are, never the answers.
+ */
+public class MappedUnionFind implements UnionFind, Closeable {
+    private static final int MAGIC = 0x55464D31;
+    private static final int HEADER_BYTES = 16;
+    private static final int N_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    private static final int DIRTY_OFFSET = 12;
+
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_INTS - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] chunks;
+    private final IntBuffer[] ids;
+    private final IntBuffer[] sizes;
+    private final int n;
+    private int count;
+    private boolean dirty;
+
+    private MappedUnionFind(FileChannel channel, int n) throws IOException {
+        this.channel = channel;
+        this.n = n;
+
+        header = map(0, HEADER_BYTES);
+
+        var chunkCount = (int) (((long) n + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+        chunks = new MappedByteBuffer[2 * chunkCount];
+        ids = new IntBuffer[chunkCount];
+        sizes = new IntBuffer[chunkCount];
+        for (var c = 0; c < chunkCount; c++) {
+            long first = (long) c << CHUNK_SHIFT;
+            long length = Math.min(CHUNK_INTS, n - first);
+
+            chunks[2 * c] = map(HEADER_BYTES + 4 * first, 4 * length);
+            chunks[2 * c + 1] = map(HEADER_BYTES + 4L * n + 4 * first, 4 * length);
+            ids[c] = chunks[2 * c].asIntBuffer();
+            sizes[c] = chunks[2 * c + 1].asIntBuffer();
+        }
+    }
+
+    private MappedByteBuffer map(long position, long length) throws IOException {
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    // Creates a new file with n elements, each one in its own component, replacing the file
+    // if it already exists
+    public static MappedUnionFind create(Path file, int n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative, but was " + n);
+        }
+
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            var unionFind = new MappedUnionFind(channel, n);
+            for (var i = 0; i < n; i++) {
+                unionFind.setId(i, i);
+                unionFind.setSize(i, 1);
+            }
+
+            unionFind.count = n;
+            unionFind.header.putInt(0, MAGIC);
+            unionFind.header.putInt(N_OFFSET, n);
+            unionFind.checkpoint();
+            return unionFind;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Reopens a file written by create, with the components it had at the last checkpoint,
+    // or later
+    public static MappedUnionFind open(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is not a union-find file");
+            }
+
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            var n = header.getInt(N_OFFSET);
+            if (header.getInt(0) != MAGIC || n < 0 || channel.size() < HEADER_BYTES + 8L * n) {
+                throw new IOException(file + " is not a union-find file");
+            }
+
+            var unionFind = new MappedUnionFind(channel, n);
+            unionFind.count = unionFind.header.getInt(COUNT_OFFSET);
+            if (unionFind.header.getInt(DIRTY_OFFSET) != 0) {
+                unionFind.count = unionFind.countRoots();
+                unionFind.checkpoint();
+            }
+            return unionFind;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private int countRoots() {
+        var roots = 0;
+        for (var i = 0; i < n; i++) {
+            if (id(i) == i) roots++;
+        }
+        return roots;
+    }
+
+    // Writes the count to the header and forces every change to disk
+    public void checkpoint() {
+        header.putInt(COUNT_OFFSET, count);
+        for (var chunk : chunks) {
+            chunk.force();
+        }
+        header.putInt(DIRTY_OFFSET, 0);
+        header.force();
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        checkpoint();
+        channel.close();
+    }
+
+    // Closes the file without a checkpoint, as if the process had crashed, for testing open()
+    void closeWithoutCheckpoint() throws IOException {
+        channel.close();
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Returns the root of the tree to which the component p belongs, halving the path on the way
+    public int find(int p) {
+        validate(p);
+
+        int parent = id(p);
+        while (p != parent) {
+            int grandparent = id(parent);
+            if (parent != grandparent) {
+                markDirty();
+                setId(p, grandparent);
+            }
+            p = grandparent;
+            parent = id(p);
+        }
+        return p;
+    }
+
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    public void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) return;
+
+        markDirty();
+
+        // Make smaller root point to the larger one
+        int sizeP = size(rootP);
+        int sizeQ = size(rootQ);
+        if (sizeP < sizeQ) {
+            setId(rootP, rootQ);
+            setSize(rootQ, sizeP + sizeQ);
+        } else {
+            setId(rootQ, rootP);
+            setSize(rootP, sizeP + sizeQ);
+        }
+        count--;
+    }
+
+    // The flag is forced to disk before the first change after a checkpoint, otherwise the
+    // operating system could write the changed pages first, and a crash would leave a file that
+    // looks clean but has the count of the last checkpoint. It runs once per checkpoint
+    private void markDirty() {
+        if (!dirty) {
+            header.putInt(DIRTY_OFFSET, 1);
+            header.force();
+            dirty = true;
+        }
+    }
+
+    private int id(int i) {
+        return ids[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+    }
+
+    private void setId(int i, int value) {
+        ids[i >>> CHUNK_SHIFT].put(i & CHUNK_MASK, value);
+    }
+
+    private int size(int i) {
+        return sizes[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+    }
+
+    private void setSize(int i, int value) {
+        sizes[i >>> CHUNK_SHIFT].put(i & CHUNK_MASK, value);
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n - 1));
+        }
+    }
+}
@@ -21,7 +21,7 @@ import java.util.Arrays;
  *     It's performance can get to O(n^2) in the worst case.
  */
 
-public class QuickFind {
+public class QuickFind implements UnionFind {
     private final int[] ids;
     private int count;
 
@@ -34,6 +34,10 @@ public class QuickFind {
         count = n;
     }
 
+    public int size() {
+        return ids.length;
+    }
+
     public int getCount() {
         return count;
     }
@@ -19,7 +19,7 @@ package algorithms;
  * </p>
  */
 
-public class QuickUnion {
+public class QuickUnion implements UnionFind {
     private int[] ids;
     private int count;
 
@@ -31,6 +31,10 @@ public class QuickUnion {
         }
     }
 
+    public int size() {
+        return ids.length;
+    }
+
     public int getCount() {
         return count;
     }
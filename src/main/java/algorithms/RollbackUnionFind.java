@@ -0,0 +1,131 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Union-find that can undo unions, for what-if analysis (union a batch of edges, query, throw the
+ * batch away) and for offline dynamic connectivity, where edges are added and removed in LIFO order.
+ * <p>
+ * Undoing a union has to put back every entry it changed, so:
+ *  - it links by size, like WeightedQuickUnion, which keeps every tree at most log N deep, so find
+ *  is O(log N) even without compression
+ *  - it does no path compression, since that would change entries in find as well, and those
+ *  would have to be recorded too
+ *  - every union that merges two components pushes the absorbed root on a stack, which is all
+ *  that is needed to undo it: its parent is the other root, and its size is still its own
+ * <p>
+ * snapshot() is just the depth of the stack, and rollback(snapshot) pops and undoes unions until
+ * the stack is back to that depth, so it costs O(unions undone). The stack only holds unions that
+ * merged something, so memory is bounded by N - 1 entries.
+ */
+public class RollbackUnionFind implements UnionFind {
+    private final int[] ids;
+    private final int[] sizes;
+    private int[] history;
+    private int depth;
+    private int count;
+
+    public RollbackUnionFind(int n) {
+        count = n;
+        ids = new int[n];
+        sizes = new int[n];
+        history = new int[Math.min(n, 16)];
+        for (var i = 0; i < n; i++) {
+            ids[i] = i;
+            sizes[i] = 1;
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int find(int p) {
+        validate(p);
+        while (p != ids[p]) {
+            p = ids[p];
+        }
+        return p;
+    }
+
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    public void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) return;
+
+        // Make smaller root point to the larger one
+        if (sizes[rootP] < sizes[rootQ]) {
+            int swap = rootP;
+            rootP = rootQ;
+            rootQ = swap;
+        }
+        ids[rootQ] = rootP;
+        sizes[rootP] += sizes[rootQ];
+        count--;
+
+        if (depth == history.length) {
+            history = Arrays.copyOf(history, Math.min(ids.length, 2 * history.length));
+        }
+        history[depth++] = rootQ;
+    }
+
+    // Returns a marker for the current state, to pass to rollback later
+    public int snapshot() {
+        return depth;
+    }
+
+    // Undoes every union made after the snapshot was taken. Snapshots taken after this one are
+    // no longer valid once it has been rolled back
+    public void rollback(int snapshot) {
+        if (snapshot < 0 || snapshot > depth) {
+            throw new IllegalArgumentException("snapshot " + snapshot + " is not between 0 and " + depth);
+        }
+        while (depth > snapshot) {
+            undo();
+        }
+    }
+
+    // Undoes the last union that merged two components, returns false if there is none
+    public boolean undo() {
+        if (depth == 0) return false;
+
+        int absorbed = history[--depth];
+        int root = ids[absorbed];
+        sizes[root] -= sizes[absorbed];
+        ids[absorbed] = absorbed;
+        count++;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Array: " + Arrays.toString(ids) + "\n" +
+                "Sizes: " + Arrays.toString(sizes);
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= ids.length) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (ids.length - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        var arr = new RollbackUnionFind(11);
+        arr.union(2, 7);
+        int snapshot = arr.snapshot();
+        arr.union(7, 8);
+        arr.union(3, 10);
+        arr.union(3, 2);
+        System.out.println(arr);
+        arr.rollback(snapshot);
+        System.out.println(arr);
+    }
+}
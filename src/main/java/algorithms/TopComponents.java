@@ -0,0 +1,125 @@
+package algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the largest components of a union-find up to date as unions happen, so there is no need
+ * to call find on every element to get them. Register it as the UnionListener of a
+ * WeightedQuickUnion or WeightedQuickUnionPathCompression created with the same n.
+ * <p>
+ * Every component with two or more elements is kept in a binary max-heap ordered by size, with
+ * the position of each root in the heap stored in a separate array (an indexed heap), so any root
+ * can be found and moved in O(1) + O(log N):
+ *  - when two components merge, the absorbed root is removed from the heap, and the surviving
+ *  root is either moved up (its size can only grow) or inserted
+ *  - top(k) walks the heap from the root, always expanding the largest candidate seen so far,
+ *  so it only looks at about 2k entries of the heap, in O(k log k)
+ * <p>
+ * Components with a single element are not kept, they are all the same anyway.
+ */
+public class TopComponents implements UnionListener {
+    public record Component(int root, int size) {
+    }
+
+    private final int[] heap;
+    private final int[] positions;
+    private final int[] sizes;
+    private int length;
+
+    public TopComponents(int n) {
+        heap = new int[n];
+        positions = new int[n];
+        sizes = new int[n];
+        Arrays.fill(positions, -1);
+    }
+
+    @Override
+    public void onUnion(int root, int absorbed, int size) {
+        if (positions[absorbed] != -1) {
+            remove(positions[absorbed]);
+        }
+
+        sizes[root] = size;
+        if (positions[root] == -1) {
+            heap[length] = root;
+            positions[root] = length;
+            length++;
+        }
+        swim(positions[root]);
+    }
+
+    // Number of components with two or more elements
+    public int count() {
+        return length;
+    }
+
+    // Size of the largest component, 1 when nothing has been merged yet
+    public int largestSize() {
+        return length == 0 ? 1 : sizes[heap[0]];
+    }
+
+    // The k largest components with two or more elements, largest first
+    public List<Component> top(int k) {
+        var result = new ArrayList<Component>(Math.min(k, length));
+        if (length == 0 || k <= 0) return result;
+
+        PriorityQueue<Integer> candidates = new PriorityQueue<>((i, j) -> Integer.compare(sizes[heap[j]], sizes[heap[i]]));
+        candidates.add(0);
+        while (result.size() < k && !candidates.isEmpty()) {
+            int i = candidates.poll();
+            result.add(new Component(heap[i], sizes[heap[i]]));
+
+            if (2 * i + 1 < length) candidates.add(2 * i + 1);
+            if (2 * i + 2 < length) candidates.add(2 * i + 2);
+        }
+        return result;
+    }
+
+    private void remove(int i) {
+        positions[heap[i]] = -1;
+        length--;
+        if (i == length) return;
+
+        heap[i] = heap[length];
+        positions[heap[i]] = i;
+        if (i > 0 && sizes[heap[(i - 1) / 2]] < sizes[heap[i]]) {
+            swim(i);
+        } else {
+            sink(i);
+        }
+    }
+
+    private void swim(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (sizes[heap[parent]] >= sizes[heap[i]]) break;
+
+            exchange(i, parent);
+            i = parent;
+        }
+    }
+
+    private void sink(int i) {
+        int child;
+        while ((child = 2 * i + 1) < length) {
+            if (child + 1 < length && sizes[heap[child]] < sizes[heap[child + 1]]) {
+                child++;
+            }
+            if (sizes[heap[i]] >= sizes[heap[child]]) break;
+
+            exchange(i, child);
+            i = child;
+        }
+    }
+
+    private void exchange(int i, int j) {
+        int swap = heap[i];
+        heap[i] = heap[j];
+        heap[j] = swap;
+        positions[heap[i]] = i;
+        positions[heap[j]] = j;
+    }
+}
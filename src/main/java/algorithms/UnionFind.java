@@ -0,0 +1,71 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * The operations shared by every union-find (disjoint set) implementation in this package, so
+ * they can replace one another without changing the code that uses them.
+ *  - size: the number of elements, which are numbered from 0 to size - 1
+ *  - getCount: the number of components (disjoint sets)
+ *  - find: an identifier of the component that p belongs to, equal for all its members
+ *  - connected: whether p and q are in the same component
+ *  - union: merges the components of p and q
+ * <p>
+ * The batch versions of union and connected take the pairs as two parallel arrays, the i-th pair
+ * being (ps[i], qs[i]), which is how edge lists are usually stored. Implementations can override
+ * them to validate the whole batch once instead of every pair.
+ */
+public interface UnionFind {
+    int size();
+
+    int getCount();
+
+    int find(int p);
+
+    boolean connected(int p, int q);
+
+    void union(int p, int q);
+
+    default void union(int[] ps, int[] qs) {
+        validatePairs(ps, qs);
+        for (var i = 0; i < ps.length; i++) {
+            union(ps[i], qs[i]);
+        }
+    }
+
+    default boolean[] connected(int[] ps, int[] qs) {
+        validatePairs(ps, qs);
+        var result = new boolean[ps.length];
+        for (var i = 0; i < ps.length; i++) {
+            result[i] = connected(ps[i], qs[i]);
+        }
+        return result;
+    }
+
+    // Returns the component of every element as a dense label, from 0 to getCount() - 1.
+    // Unlike find, the labels do not depend on how the trees were linked: components are
+    // numbered in the order of their smallest element, so the same partition always gets the
+    // same labels, whatever the implementation and the order of the unions
+    default int[] components() {
+        var n = size();
+        var labels = new int[n];
+        var rootLabels = new int[n];
+        Arrays.fill(rootLabels, -1);
+
+        var next = 0;
+        for (var i = 0; i < n; i++) {
+            int root = find(i);
+            if (rootLabels[root] == -1) {
+                rootLabels[root] = next++;
+            }
+            labels[i] = rootLabels[root];
+        }
+        return labels;
+    }
+
+    private static void validatePairs(int[] ps, int[] qs) {
+        if (ps.length != qs.length) {
+            throw new IllegalArgumentException("ps has " + ps.length + " elements, but qs has " + qs.length);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package algorithms;
+
+/**
+ * Called by the union-find implementations that keep component sizes, every time union merges
+ * two components. root is the root of the merged component, absorbed is the root that was linked
+ * under it (and is no longer a root), and size is the size of the merged component.
+ * <p>
+ * It runs inside union, so it should be quick, hand the event off if there is real work to do.
+ */
+@FunctionalInterface
+public interface UnionListener {
+    void onUnion(int root, int absorbed, int size);
+}
@@ -0,0 +1,137 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * QuickFind answers find with a single array read, but union scans the whole id array to relabel
+ * one of the components, which is O(N) per union and O(N^2) for N - 1 of them.
+ * <p>
+ * This version keeps the members of every component in a circular linked list, stored in the
+ * next array (next[i] is the member after i, and a component on its own points to itself), so
+ * union only visits the elements it relabels:
+ *  - the smaller component is relabelled with the id of the larger one, the same rule as in
+ *  WeightedQuickUnion
+ *  - the two circular lists are joined in O(1) by exchanging next[p] and next[q]
+ * <p>
+ * An element is only relabelled when its component at least doubles in size, so it is relabelled
+ * at most log N times, and any sequence of unions costs O(N log N) in total, while find stays
+ * O(1). It costs two more int arrays than QuickFind.
+ * <p>
+ * As the id of every element is its component, componentSize is a single read of sizes too,
+ * the O(1) size query that the tree based versions can only answer after a find.
+ */
+public class WeightedQuickFind implements UnionFind {
+    private final int[] ids;
+    private final int[] next;
+    // Only kept up to date for the ids in use
+    private final int[] sizes;
+    private int count;
+    private int largest;
+    private UnionListener listener;
+
+    public WeightedQuickFind(int n) {
+        ids = new int[n];
+        next = new int[n];
+        sizes = new int[n];
+        for (var i = 0; i < n; i++) {
+            ids[i] = i;
+            next[i] = i;
+            sizes[i] = 1;
+        }
+
+        count = n;
+        largest = n > 0 ? 1 : 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Number of elements in the component p belongs to
+    public int componentSize(int p) {
+        validate(p);
+        return sizes[ids[p]];
+    }
+
+    // Sizes only grow when components merge, so the largest one is just kept up to date in union
+    public int largestComponentSize() {
+        return largest;
+    }
+
+    // Called after every union that merges two components, with the id that was kept as the
+    // root and the id that was relabelled as the absorbed one, null to stop listening
+    public void setListener(UnionListener listener) {
+        this.listener = listener;
+    }
+
+    public int find(int p) {
+        validate(p);
+        return ids[p];
+    }
+
+    public boolean connected(int p, int q) {
+        validate(p);
+        validate(q);
+        return ids[p] == ids[q];
+    }
+
+    public void union(int p, int q) {
+        int pid = find(p);
+        int qid = find(q);
+        if (pid == qid) return;
+
+        // Relabel the smaller component, walking its list once around
+        if (sizes[pid] > sizes[qid]) {
+            int swap = pid;
+            pid = qid;
+            qid = swap;
+            swap = p;
+            p = q;
+            q = swap;
+        }
+        int i = p;
+        do {
+            ids[i] = qid;
+            i = next[i];
+        } while (i != p);
+        sizes[qid] += sizes[pid];
+
+        int swap = next[p];
+        next[p] = next[q];
+        next[q] = swap;
+        count--;
+
+        if (sizes[qid] > largest) {
+            largest = sizes[qid];
+        }
+        if (listener != null) {
+            listener.onUnion(qid, pid, sizes[qid]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= ids.length) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (ids.length - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        var qf = new WeightedQuickFind(100);
+
+        long before = System.nanoTime();
+        qf.union(2, 30);
+        qf.union(15, 50);
+        qf.union(30, 50);
+        System.out.println(qf);
+        System.out.println("Time: " + (System.nanoTime() - before));
+    }
+}
@@ -1,14 +1,27 @@
 package algorithms;
 
+import utils.OpCounter;
+
 import java.util.Arrays;
 
-public class WeightedQuickUnion {
+public class WeightedQuickUnion implements UnionFind {
     private final int[] ids;
     private final int[] sizes;
+    // null unless the operations are counted
+    private final OpCounter counter;
     private int count;
+    private int largest;
+    private UnionListener listener;
 
     public WeightedQuickUnion(int n) {
+        this(n, null);
+    }
+
+    // Every find records the length of its path in the counter
+    public WeightedQuickUnion(int n, OpCounter counter) {
+        this.counter = counter;
         count = n;
+        largest = n > 0 ? 1 : 0;
         ids = new int[n];
         sizes = new int[n];
         for (var i = 0; i < n; i++) {
@@ -17,18 +30,52 @@ public class WeightedQuickUnion {
         }
     }
 
+    public int size() {
+        return ids.length;
+    }
+
     public int getCount() {
         return count;
     }
 
+    // Number of elements in the component p belongs to. Sizes are kept on the roots, so this
+    // costs one find, O(log N), the height of the tree. WeightedQuickFind answers it in O(1)
+    public int componentSize(int p) {
+        return sizes[find(p)];
+    }
+
+    // Sizes only grow when components merge, so the largest one is just kept up to date in union
+    public int largestComponentSize() {
+        return largest;
+    }
+
+    // Called after every union that merges two components, null to stop listening
+    public void setListener(UnionListener listener) {
+        this.listener = listener;
+    }
+
     // Returns the root of the tree to which the component p belongs
     public int find(int p) {
+        if (counter != null) {
+            countPath(p);
+        }
         while (p != ids[p]) {
             p = ids[p];
         }
         return p;
     }
 
+    // Walks the path once more only to measure it, so find itself is the same loop as without a counter
+    private void countPath(int p) {
+        int length = 0;
+        while (p != ids[p]) {
+            p = ids[p];
+            length++;
+        }
+        counter.pathLength(length);
+        counter.arrayAccesses(length + 1);
+    }
+
     public boolean connected(int p, int q) {
         return find(p) == find(q);
     }
@@ -40,13 +87,20 @@ public class WeightedQuickUnion {
 
         // Make smaller root point to the larger one
         if (sizes[rootP] < sizes[rootQ]) {
-            ids[rootP] = rootQ;
-            sizes[rootQ] += sizes[rootP];
-        } else {
-            ids[rootQ] = rootP;
-            sizes[rootP] += sizes[rootQ];
+            int swap = rootP;
+            rootP = rootQ;
+            rootQ = swap;
         }
+        ids[rootQ] = rootP;
+        sizes[rootP] += sizes[rootQ];
         count--;
+
+        if (sizes[rootP] > largest) {
+            largest = sizes[rootP];
+        }
+        if (listener != null) {
+            listener.onUnion(rootP, rootQ, sizes[rootP]);
+        }
     }
 
     @Override
@@ -0,0 +1,228 @@
+package algorithms;
+
+import utils.OpCounter;
+
+import java.util.Arrays;
+
+/**
+ * WeightedQuickUnion keeps the trees shallow (log N at most) by linking the smaller tree under the
+ * larger one, but find still walks the whole path from p to the root on every call, and the same
+ * paths are walked over and over. Path compression makes every node visited by find point closer
+ * to the root, so later calls for the same nodes (and for everything below them) are shorter.
+ * Combined with union by size, the cost of any sequence of operations is nearly linear: each one
+ * is O(alpha(N)) amortized, where alpha is the inverse Ackermann function, which is less than 5 for any N
+ * that fits in memory.
+ * <p>
+ * There are three ways of compressing the path, selected with {@link Compression}:
+ *  - FULL: walk to the root, then walk the path again pointing every node directly to the root
+ *  - HALVING: point every other node on the path to its grandparent, in a single pass
+ *  - SPLITTING: point every node on the path to its grandparent, in a single pass
+ * <p>
+ * Halving and splitting have the same amortized bounds as full compression, but they only walk
+ * the path once, and write to nodes that were just read, which is friendlier to the cache.
+ * <p>
+ * Given an {@link OpCounter}, every find records the length of the path it walked, before
+ * compressing it, so the histogram shows how well each kind of compression keeps paths short.
+ */
+public class WeightedQuickUnionPathCompression implements UnionFind {
+    public enum Compression {
+        FULL,
+        HALVING,
+        SPLITTING
+    }
+
+    private final int[] ids;
+    private final int[] sizes;
+    private final Compression compression;
+    // null unless the operations are counted
+    private final OpCounter counter;
+    private int count;
+    private int largest;
+    private UnionListener listener;
+
+    public WeightedQuickUnionPathCompression(int n) {
+        this(n, Compression.HALVING);
+    }
+
+    public WeightedQuickUnionPathCompression(int n, Compression compression) {
+        this(n, compression, null);
+    }
+
+    public WeightedQuickUnionPathCompression(int n, Compression compression, OpCounter counter) {
+        this.compression = compression;
+        this.counter = counter;
+        count = n;
+        largest = n > 0 ? 1 : 0;
+        ids = new int[n];
+        sizes = new int[n];
+        for (var i = 0; i < n; i++) {
+            ids[i] = i;
+            sizes[i] = 1;
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Number of elements in the component p belongs to. Sizes are kept on the roots, so this
+    // costs one find, nearly constant amortized as find compresses the path. WeightedQuickFind
+    // answers it in O(1)
+    public int componentSize(int p) {
+        return sizes[find(p)];
+    }
+
+    // Sizes only grow when components merge, so the largest one is just kept up to date in union
+    public int largestComponentSize() {
+        return largest;
+    }
+
+    // Called after every union that merges two components, null to stop listening
+    public void setListener(UnionListener listener) {
+        this.listener = listener;
+    }
+
+    // Returns the root of the tree to which the component p belongs, compressing the path
+    // from p to the root on the way
+    public int find(int p) {
+        validate(p);
+        return root(p);
+    }
+
+    private int root(int p) {
+        if (counter != null) {
+            countPath(p);
+        }
+        return switch (compression) {
+            case FULL -> findFull(p);
+            case HALVING -> findHalving(p);
+            case SPLITTING -> findSplitting(p);
+        };
+    }
+
+    private int findFull(int p) {
+        int root = p;
+        while (root != ids[root]) {
+            root = ids[root];
+        }
+
+        while (p != root) {
+            int next = ids[p];
+            ids[p] = root;
+            p = next;
+        }
+        return root;
+    }
+
+    private int findHalving(int p) {
+        while (p != ids[p]) {
+            ids[p] = ids[ids[p]];
+            p = ids[p];
+        }
+        return p;
+    }
+
+    private int findSplitting(int p) {
+        while (p != ids[p]) {
+            int next = ids[p];
+            ids[p] = ids[next];
+            p = next;
+        }
+        return p;
+    }
+
+    private void countPath(int p) {
+        int length = 0;
+        while (p != ids[p]) {
+            p = ids[p];
+            length++;
+        }
+        counter.pathLength(length);
+        counter.arrayAccesses(length + 1);
+    }
+
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    public void union(int p, int q) {
+        link(find(p), find(q));
+    }
+
+    // The batch versions check every index in a first pass, then run the operations without
+    // checking them again, keeping the hot loop down to the two finds and the link
+    @Override
+    public void union(int[] ps, int[] qs) {
+        validate(ps, qs);
+        for (var i = 0; i < ps.length; i++) {
+            link(root(ps[i]), root(qs[i]));
+        }
+    }
+
+    @Override
+    public boolean[] connected(int[] ps, int[] qs) {
+        validate(ps, qs);
+        var result = new boolean[ps.length];
+        for (var i = 0; i < ps.length; i++) {
+            result[i] = root(ps[i]) == root(qs[i]);
+        }
+        return result;
+    }
+
+    private void link(int rootP, int rootQ) {
+        if (rootP == rootQ) return;
+
+        // Make smaller root point to the larger one
+        if (sizes[rootP] < sizes[rootQ]) {
+            int swap = rootP;
+            rootP = rootQ;
+            rootQ = swap;
+        }
+        ids[rootQ] = rootP;
+        sizes[rootP] += sizes[rootQ];
+        count--;
+
+        if (sizes[rootP] > largest) {
+            largest = sizes[rootP];
+        }
+        if (listener != null) {
+            listener.onUnion(rootP, rootQ, sizes[rootP]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Array: " + Arrays.toString(ids) + "\n" +
+                "Sizes: " + Arrays.toString(sizes);
+    }
+
+    private void validate(int[] ps, int[] qs) {
+        if (ps.length != qs.length) {
+            throw new IllegalArgumentException("ps has " + ps.length + " elements, but qs has " + qs.length);
+        }
+        for (var i = 0; i < ps.length; i++) {
+            validate(ps[i]);
+            validate(qs[i]);
+        }
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= ids.length) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (ids.length - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        var arr = new WeightedQuickUnionPathCompression(11);
+        arr.union(2, 7);
+        arr.union(7, 8);
+        arr.union(3, 10);
+        arr.union(3, 2);
+        arr.find(8);
+        System.out.println(arr);
+    }
+}
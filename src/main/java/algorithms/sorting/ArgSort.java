@@ -0,0 +1,285 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.lang.reflect.Array;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Columnar data keeps each field in its own array, a key array and any number of payload arrays,
+ * where index i of every array belongs to the same record. Sorting them with the other sorters
+ * means building an object per record, sorting those, and copying the fields back. Instead:
+ *  - argsort: the permutation that sorts the keys, as an int[] of indices, order[i] is the index
+ *  of the i-th smallest key. The keys themselves are not moved. It is stable, equal keys keep
+ *  the order of their indices
+ *  - permute: rearranges any number of parallel arrays in place by the same permutation, so that
+ *  arr[i] becomes the old arr[order[i]]
+ *  - coSort: both at once, the keys and every payload array end up sorted by the keys
+ * <p>
+ * A single array is always taken as one payload, whatever its type, so a String[] or an int[][]
+ * column moves as a whole. Several arrays are passed as a List, never as an Object[]: an array of
+ * arrays is ambiguous, its rows could be the payloads, or the entries of a single payload.
+ * <p>
+ * int and long keys are radix sorted together with their indices, the same way as
+ * KeySort.orderByInt and KeySort.orderByLong, so there are no comparisons. Objects are sorted
+ * by a merge sort of the indices, which compares arr[order[i]] but never moves arr.
+ * <p>
+ * permute follows the cycles of the permutation, moving each entry once with a single
+ * temporary, and marks the indices it has placed, so it needs no copy of the arrays and only
+ * one boolean per index, whatever the number of arrays.
+ */
+public class ArgSort {
+    // Index ranges up to this size are sorted with insertion sort
+    private static final int INSERTION_CUTOFF = 12;
+
+    public static void main(String[] args) {
+        var keys = Utils.createRandomIntArray(1_000_000, 0, 1_000);
+        var ids = new long[keys.length];
+        var prices = Utils.createRandomDoubleArray(keys.length, 0, 100);
+        for (var i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+
+        Utils.runWithTime(k -> coSort(k, List.of(ids, prices)), keys);
+        System.out.println("Sorted: " + Utils.isSorted(keys));
+    }
+
+    public static int[] argsort(int[] keys) {
+        return KeySort.order(keys);
+    }
+
+    public static int[] argsort(long[] keys) {
+        return KeySort.order(keys);
+    }
+
+    public static <T extends Comparable<? super T>> int[] argsort(T[] arr) {
+        return argsort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> int[] argsort(T[] arr, Comparator<? super T> comparator) {
+        var order = identity(arr.length);
+        sort(arr, order.clone(), order, 0, arr.length, comparator);
+        return order;
+    }
+
+    // Same as MergeSort.pingPong, on the indices: src and dst hold the same indices in
+    // [start, end) on entry, and dst holds them sorted by their entries in arr on exit
+    private static <T> void sort(T[] arr, int[] src, int[] dst, int start, int end, Comparator<? super T> comparator) {
+        if (end - start <= INSERTION_CUTOFF) {
+            insertion(arr, dst, start, end, comparator);
+            return;
+        }
+
+        int middle = start + (end - start) / 2;
+        Utils.enterRecursion();
+        sort(arr, dst, src, start, middle, comparator);
+        sort(arr, dst, src, middle, end, comparator);
+        Utils.exitRecursion();
+
+        // Already in order, the merge would only copy
+        if (!Utils.isLess(arr[src[middle]], arr[src[middle - 1]], comparator)) {
+            System.arraycopy(src, start, dst, start, end - start);
+            return;
+        }
+
+        int left = start, right = middle;
+        for (var i = start; i < end; i++) {
+            if (left == middle) dst[i] = src[right++];
+            else if (right == end) dst[i] = src[left++];
+            else if (Utils.isLess(arr[src[right]], arr[src[left]], comparator)) dst[i] = src[right++];
+            else dst[i] = src[left++];
+        }
+    }
+
+    private static <T> void insertion(T[] arr, int[] order, int start, int end, Comparator<? super T> comparator) {
+        for (var i = start + 1; i < end; i++) {
+            int index = order[i];
+            T value = arr[index];
+            var j = i;
+            for (; j > start && Utils.isLess(value, arr[order[j - 1]], comparator); j--) {
+                order[j] = order[j - 1];
+            }
+            order[j] = index;
+        }
+    }
+
+    // Sorts keys, and moves the entries of the payload array along with their keys. The payload
+    // can be an array of any type, and must have the same length as the keys
+    public static void coSort(int[] keys, Object payload) {
+        coSort(keys, Collections.singletonList(payload));
+    }
+
+    public static void coSort(int[] keys, List<?> payloads) {
+        validateLengths(keys.length, payloads);
+        var order = argsort(keys);
+        permute(order, keys);
+        permute(order, payloads);
+    }
+
+    public static void coSort(long[] keys, Object payload) {
+        coSort(keys, Collections.singletonList(payload));
+    }
+
+    public static void coSort(long[] keys, List<?> payloads) {
+        validateLengths(keys.length, payloads);
+        var order = argsort(keys);
+        permute(order, keys);
+        permute(order, payloads);
+    }
+
+    // Objects are always sorted with a comparator, pass Comparator.naturalOrder() for their
+    // natural order
+    public static <T> void coSort(T[] keys, Comparator<? super T> comparator, Object payload) {
+        coSort(keys, comparator, Collections.singletonList(payload));
+    }
+
+    public static <T> void coSort(T[] keys, Comparator<? super T> comparator, List<?> payloads) {
+        validateLengths(keys.length, payloads);
+        var order = argsort(keys, comparator);
+        permute(order, keys);
+        permute(order, payloads);
+    }
+
+    // Rearranges arr so that arr[i] becomes the old arr[order[i]]. int, long, double and object
+    // arrays are moved directly, other primitive arrays through reflection
+    public static void permute(int[] order, Object arr) {
+        permute(order, Collections.singletonList(arr));
+    }
+
+    // Rearranges every array in the list by the same order
+    public static void permute(int[] order, List<?> arrays) {
+        validateLengths(order.length, arrays);
+        var placed = validatePermutation(order);
+        if (order.length == 0) return;
+
+        for (var arr : arrays) {
+            // validatePermutation leaves every index marked, so placed flips meaning on every array
+            boolean mark = !placed[0];
+            if (arr instanceof int[] ints) permute(order, ints, placed, mark);
+            else if (arr instanceof long[] longs) permute(order, longs, placed, mark);
+            else if (arr instanceof double[] doubles) permute(order, doubles, placed, mark);
+            else if (arr instanceof Object[] objects) permute(order, objects, placed, mark);
+            else permuteArray(order, arr, placed, mark);
+        }
+    }
+
+    // Walks each cycle start -> order[start] -> ... -> start once, shifting every entry back
+    // to the index that points at it, and puts the first entry of the cycle last
+    private static void permute(int[] order, int[] arr, boolean[] placed, boolean mark) {
+        for (var start = 0; start < order.length; start++) {
+            if (placed[start] == mark) continue;
+
+            int value = arr[start];
+            int j = start, k;
+            placed[j] = mark;
+            while ((k = order[j]) != start) {
+                arr[j] = arr[k];
+                placed[k] = mark;
+                j = k;
+            }
+            arr[j] = value;
+        }
+    }
+
+    private static void permute(int[] order, long[] arr, boolean[] placed, boolean mark) {
+        for (var start = 0; start < order.length; start++) {
+            if (placed[start] == mark) continue;
+
+            long value = arr[start];
+            int j = start, k;
+            placed[j] = mark;
+            while ((k = order[j]) != start) {
+                arr[j] = arr[k];
+                placed[k] = mark;
+                j = k;
+            }
+            arr[j] = value;
+        }
+    }
+
+    private static void permute(int[] order, double[] arr, boolean[] placed, boolean mark) {
+        for (var start = 0; start < order.length; start++) {
+            if (placed[start] == mark) continue;
+
+            double value = arr[start];
+            int j = start, k;
+            placed[j] = mark;
+            while ((k = order[j]) != start) {
+                arr[j] = arr[k];
+                placed[k] = mark;
+                j = k;
+            }
+            arr[j] = value;
+        }
+    }
+
+    private static void permute(int[] order, Object[] arr, boolean[] placed, boolean mark) {
+        for (var start = 0; start < order.length; start++) {
+            if (placed[start] == mark) continue;
+
+            Object value = arr[start];
+            int j = start, k;
+            placed[j] = mark;
+            while ((k = order[j]) != start) {
+                arr[j] = arr[k];
+                placed[k] = mark;
+                j = k;
+            }
+            arr[j] = value;
+        }
+    }
+
+    private static void permuteArray(int[] order, Object arr, boolean[] placed, boolean mark) {
+        for (var start = 0; start < order.length; start++) {
+            if (placed[start] == mark) continue;
+
+            Object value = Array.get(arr, start);
+            int j = start, k;
+            placed[j] = mark;
+            while ((k = order[j]) != start) {
+                Array.set(arr, j, Array.get(arr, k));
+                placed[k] = mark;
+                j = k;
+            }
+            Array.set(arr, j, value);
+        }
+    }
+
+    private static int[] identity(int length) {
+        var order = new int[length];
+        for (var i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    // Returns an array with every index marked, the cycles of an order that is not a
+    // permutation would never get back to their start
+    private static boolean[] validatePermutation(int[] order) {
+        var seen = new boolean[order.length];
+        for (var i = 0; i < order.length; i++) {
+            int index = order[i];
+            if (index < 0 || index >= order.length) {
+                throw new IllegalArgumentException("index " + index + " is not between 0 and " + (order.length - 1));
+            }
+            if (seen[index]) {
+                throw new IllegalArgumentException("index " + index + " appears more than once in the order");
+            }
+            seen[index] = true;
+        }
+        return seen;
+    }
+
+    private static void validateLengths(int length, List<?> arrays) {
+        for (var arr : arrays) {
+            if (arr == null || !arr.getClass().isArray()) {
+                throw new IllegalArgumentException("expected an array, but got " + arr);
+            }
+            if (Array.getLength(arr) != length) {
+                throw new IllegalArgumentException("array length " + Array.getLength(arr) + " does not match the length " + length);
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package algorithms.sorting;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sorts binary files of ints or longs that do not fit in memory. The input is a sequence of
+ * big-endian values with nothing else around them, the same format DataOutputStream writes, and
+ * the output has the same format.
+ * <p>
+ * It works in two phases:
+ *  - split: read as many values as fit in the memory budget, sort them with QuickSort, and write
+ *  them to a temporary file (a run), until the input ends. If the whole input fits in a single
+ *  chunk, it is written straight to the output instead
+ *  - merge: read up to fanIn runs at a time, each through its own buffer, and merge them with
+ *  the loser tree of KWayMerge, so each value costs log2(fanIn) comparisons.
+ *  When there are more runs than fanIn, they are merged in groups into longer runs first, so
+ *  every value is read and written log_fanIn(runs) times in total
+ * <p>
+ * The memory budget bounds the chunk in the split phase, and the run buffers in the merge phase.
+ * A larger fan-in means fewer merge passes, but a smaller buffer for each run, so more, smaller
+ * reads. Reads and writes go through direct buffers, so the channels do not copy them again.
+ * <p>
+ * Runs are written to the temp directory, and deleted as soon as they are merged, or when the
+ * sort fails.
+ */
+public class ExternalSort {
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+    public static final int DEFAULT_FAN_IN = 64;
+
+    // Smallest buffer a run is read through, below that the reads get too small to be efficient
+    public static final int MIN_BUFFER_SIZE = 8 << 10;
+
+    // The input is read, and the runs are written, through buffers of this size in the split phase
+    private static final int IO_BUFFER_SIZE = 64 << 10;
+
+    private static final int MAX_BUFFER_SIZE = 1 << 30;
+
+    // Largest array the JVM can allocate
+    private static final int MAX_CHUNK_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final long memoryBudget;
+    private final int fanIn;
+    private final Path tempDirectory;
+
+    public ExternalSort() {
+        this(DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    public ExternalSort(long memoryBudget, int fanIn, Path tempDirectory) {
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fan-in must be at least 2, but was " + fanIn);
+        }
+        long minimum = (long) (fanIn + 1) * MIN_BUFFER_SIZE;
+        if (memoryBudget < minimum) {
+            throw new IllegalArgumentException("memory budget " + memoryBudget + " is less than the minimum of " + minimum + " for a fan-in of " + fanIn);
+        }
+        this.memoryBudget = memoryBudget;
+        this.fanIn = fanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var input = Files.createTempFile("external-sort", ".bin");
+        var output = Files.createTempFile("external-sort", ".sorted");
+        try {
+            var random = new Random(42);
+            var values = new int[16 << 20];
+            for (var i = 0; i < values.length; i++) {
+                values[i] = random.nextInt();
+            }
+            try (var channel = FileChannel.open(input, StandardOpenOption.WRITE)) {
+                write(channel, values, values.length, ByteBuffer.allocateDirect(IO_BUFFER_SIZE));
+            }
+
+            long before = System.nanoTime();
+            long count = new ExternalSort(8L << 20, 16, input.getParent()).sortInts(input, output);
+            long duration = System.nanoTime() - before;
+            System.out.println("Sorted " + count + " ints in " + duration / 1_000_000 + " ms, "
+                    + Files.size(input) * 1_000L / duration + " MB/s");
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    // Both return the number of values sorted
+    public long sortInts(Path input, Path output) throws IOException {
+        try (var in = FileChannel.open(input, StandardOpenOption.READ);
+             var out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return sortInts(in, out);
+        }
+    }
+
+    public long sortLongs(Path input, Path output) throws IOException {
+        try (var in = FileChannel.open(input, StandardOpenOption.READ);
+             var out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return sortLongs(in, out);
+        }
+    }
+
+    // The channels are left open. Streams can be sorted too, through Channels.newChannel
+    public long sortInts(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        var chunk = new int[chunkLength(Integer.BYTES)];
+        var input = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).flip();
+        var output = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        var runs = new ArrayList<Path>();
+        try {
+            long count = 0;
+            int length;
+            while ((length = readChunk(in, input, chunk)) > 0) {
+                count += length;
+                QuickSort.sort(chunk, 0, length);
+
+                if (runs.isEmpty() && length < chunk.length) {
+                    write(out, chunk, length, output);
+                    return count;
+                }
+                try (var run = FileChannel.open(newRun(runs), StandardOpenOption.WRITE)) {
+                    write(run, chunk, length, output);
+                }
+            }
+
+            // the chunk can be collected while the runs are merged
+            chunk = null;
+            merge(runs, out, Integer.BYTES);
+            return count;
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    public long sortLongs(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        var chunk = new long[chunkLength(Long.BYTES)];
+        var input = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).flip();
+        var output = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        var runs = new ArrayList<Path>();
+        try {
+            long count = 0;
+            int length;
+            while ((length = readChunk(in, input, chunk)) > 0) {
+                count += length;
+                QuickSort.sort(chunk, 0, length);
+
+                if (runs.isEmpty() && length < chunk.length) {
+                    write(out, chunk, length, output);
+                    return count;
+                }
+                try (var run = FileChannel.open(newRun(runs), StandardOpenOption.WRITE)) {
+                    write(run, chunk, length, output);
+                }
+            }
+
+            // the chunk can be collected while the runs are merged
+            chunk = null;
+            merge(runs, out, Long.BYTES);
+            return count;
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    private int chunkLength(int width) {
+        return (int) Math.min(MAX_CHUNK_LENGTH, memoryBudget / width);
+    }
+
+    // Merges groups of fanIn runs into longer runs until there are fanIn runs or less, then
+    // merges those into out. Every run is deleted once it has been merged
+    private void merge(List<Path> runs, WritableByteChannel out, int width) throws IOException {
+        while (runs.size() > fanIn) {
+            var merged = new ArrayList<Path>();
+            try {
+                for (var start = 0; start < runs.size(); start += fanIn) {
+                    var group = runs.subList(start, Math.min(start + fanIn, runs.size()));
+                    try (var run = FileChannel.open(newRun(merged), StandardOpenOption.WRITE)) {
+                        mergeRuns(group, run, width);
+                    }
+                    for (var path : group) {
+                        Files.delete(path);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                deleteAll(merged);
+                throw e;
+            }
+            runs.clear();
+            runs.addAll(merged);
+        }
+
+        mergeRuns(runs, out, width);
+    }
+
+    private void mergeRuns(List<Path> runs, WritableByteChannel out, int width) throws IOException {
+        int bufferSize = bufferSize(runs.size() + 1, width);
+        var readers = new ArrayList<RunReader>(runs.size());
+        try {
+            for (var run : runs) {
+                readers.add(new RunReader(run, bufferSize, width));
+            }
+
+            // ints are merged as longs, which keeps their order
+            var tree = new KWayMerge.LongLoserTree(readers.size());
+            for (var r = 0; r < readers.size(); r++) {
+                if (readers.get(r).hasNext()) tree.set(r, readers.get(r).next());
+            }
+            tree.build();
+
+            var output = ByteBuffer.allocateDirect(bufferSize);
+            int winner;
+            while ((winner = tree.winner()) != -1) {
+                if (output.remaining() < width) {
+                    writeFully(out, output.flip()).clear();
+                }
+                if (width == Integer.BYTES) {
+                    output.putInt((int) tree.value(winner));
+                } else {
+                    output.putLong(tree.value(winner));
+                }
+
+                var reader = readers.get(winner);
+                if (reader.hasNext()) {
+                    tree.set(winner, reader.next());
+                } else {
+                    tree.remove(winner);
+                }
+                tree.replay(winner);
+            }
+            writeFully(out, output.flip());
+        } finally {
+            for (var reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    // The budget split evenly between the buffers, a whole number of values each
+    private int bufferSize(int buffers, int width) {
+        long size = Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, memoryBudget / buffers));
+        return (int) (size - size % width);
+    }
+
+    private Path newRun(List<Path> runs) throws IOException {
+        var run = Files.createTempFile(tempDirectory, "run", ".bin");
+        runs.add(run);
+        return run;
+    }
+
+    private static void deleteAll(List<Path> runs) throws IOException {
+        for (var run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+    }
+
+    // Fills chunk with the next values from in, returns how many were read, 0 at the end of the input
+    private static int readChunk(ReadableByteChannel in, ByteBuffer buffer, int[] chunk) throws IOException {
+        int length = 0;
+        while (length < chunk.length) {
+            if (buffer.remaining() < Integer.BYTES && !fill(in, buffer, Integer.BYTES)) break;
+
+            int count = Math.min(buffer.remaining() / Integer.BYTES, chunk.length - length);
+            buffer.asIntBuffer().get(chunk, length, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            length += count;
+        }
+        return length;
+    }
+
+    private static int readChunk(ReadableByteChannel in, ByteBuffer buffer, long[] chunk) throws IOException {
+        int length = 0;
+        while (length < chunk.length) {
+            if (buffer.remaining() < Long.BYTES && !fill(in, buffer, Long.BYTES)) break;
+
+            int count = Math.min(buffer.remaining() / Long.BYTES, chunk.length - length);
+            buffer.asLongBuffer().get(chunk, length, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            length += count;
+        }
+        return length;
+    }
+
+    // Reads from in until the buffer holds at least one whole value, keeping the bytes that were
+    // not consumed yet. Returns false at the end of the input
+    private static boolean fill(ReadableByteChannel in, ByteBuffer buffer, int width) throws IOException {
+        buffer.compact();
+        try {
+            while (buffer.position() < width) {
+                if (in.read(buffer) == -1) {
+                    if (buffer.position() > 0) {
+                        throw new IOException("input ends in the middle of a value, its length is not a multiple of " + width);
+                    }
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    private static void write(WritableByteChannel out, int[] values, int length, ByteBuffer buffer) throws IOException {
+        for (var start = 0; start < length; ) {
+            int count = Math.min(buffer.capacity() / Integer.BYTES, length - start);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, start, count);
+            buffer.limit(count * Integer.BYTES);
+            writeFully(out, buffer);
+            start += count;
+        }
+    }
+
+    private static void write(WritableByteChannel out, long[] values, int length, ByteBuffer buffer) throws IOException {
+        for (var start = 0; start < length; ) {
+            int count = Math.min(buffer.capacity() / Long.BYTES, length - start);
+            buffer.clear();
+            buffer.asLongBuffer().put(values, start, count);
+            buffer.limit(count * Long.BYTES);
+            writeFully(out, buffer);
+            start += count;
+        }
+    }
+
+    private static ByteBuffer writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return buffer;
+    }
+
+    // Reads the values of a run through a buffer of its own
+    private static class RunReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int width;
+
+        RunReader(Path run, int bufferSize, int width) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize).flip();
+            this.width = width;
+        }
+
+        boolean hasNext() throws IOException {
+            return buffer.remaining() >= width || fill(channel, buffer, width);
+        }
+
+        long next() {
+            return width == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Heap sort turns the array into a binary max-heap, where the entry at index k is not less than
+ * the entries at 2k + 1 and 2k + 2 (its children), then repeatedly moves the largest entry, at
+ * the root, to the end of the array and restores the heap with the remaining entries.
+ *  - building the heap: sink every entry that has children, from the last one to the root
+ *  - sorting: swap the root with the last entry of the heap, shrink the heap by one, and sink
+ *  the new root until both of its children are not greater than it
+ * <p>
+ * It sorts in place, and is N log N in the worst case, whatever the input. It is usually slower
+ * than quick sort, because sinking jumps around the array instead of scanning it, so QuickSort
+ * uses it as a fallback when partitioning is not making progress (see QuickSort.introSort).
+ */
+public class HeapSort {
+    public static final String name = "Heap Sort";
+
+    public static void main(String[] args) {
+        var arr = Utils.getTestArray();
+        sort(arr);
+        System.out.println(Arrays.toString(arr));
+    }
+
+    public static <T extends Comparable<? super T>> void sort(T[] arr) {
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, comparator);
+    }
+
+    // Sorts arr[start, end), the heap is stored with its root at arr[start]
+    public static <T extends Comparable<? super T>> void sort(T[] arr, int start, int end) {
+        sort(arr, start, end, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        int length = end - start;
+
+        for (var k = length / 2 - 1; k >= 0; k--) {
+            sink(arr, start, k, length, comparator);
+        }
+
+        for (var n = length - 1; n > 0; n--) {
+            Utils.swap(arr, start, start + n);
+            sink(arr, start, 0, n, comparator);
+        }
+    }
+
+    // Moves the entry at index k of the heap down, until none of its children is greater
+    // than it. Children are shifted up instead of swapped, and the entry is written once
+    private static <T> void sink(T[] arr, int start, int k, int length, Comparator<? super T> comparator) {
+        T value = arr[start + k];
+        int child;
+
+        while ((child = 2 * k + 1) < length) {
+            if (child + 1 < length && Utils.isLess(arr[start + child], arr[start + child + 1], comparator)) {
+                child++;
+            }
+            if (!Utils.isLess(value, arr[start + child], comparator)) break;
+
+            arr[start + k] = arr[start + child];
+            k = child;
+        }
+
+        arr[start + k] = value;
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public static void sort(int[] arr, int start, int end) {
+        int length = end - start;
+
+        for (var k = length / 2 - 1; k >= 0; k--) {
+            sink(arr, start, k, length);
+        }
+
+        for (var n = length - 1; n > 0; n--) {
+            Utils.swap(arr, start, start + n);
+            sink(arr, start, 0, n);
+        }
+    }
+
+    private static void sink(int[] arr, int start, int k, int length) {
+        int value = arr[start + k];
+        int child;
+
+        while ((child = 2 * k + 1) < length) {
+            if (child + 1 < length && Utils.isLess(arr[start + child], arr[start + child + 1])) {
+                child++;
+            }
+            if (!Utils.isLess(value, arr[start + child])) break;
+
+            arr[start + k] = arr[start + child];
+            k = child;
+        }
+
+        arr[start + k] = value;
+    }
+}
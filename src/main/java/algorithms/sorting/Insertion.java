@@ -2,6 +2,8 @@ package algorithms.sorting;
 
 import utils.Utils;
 
+import java.util.Comparator;
+
 /**
  * At each iteration, insert the current element in its proper position in relation to elements already known
  */
@@ -15,8 +17,12 @@ public class Insertion {
     //  - this means that, at every iteration, we swap the current element with the one
     //  at the previous position, should it be higher
     public static <T extends Comparable<? super T>> void sort(T[] arr) {
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
         for (var i = 1; i < arr.length; i++) {
-            for (var j = i; j > 0 && Utils.isLess(arr[j], arr[j -1]); j--) {
+            for (var j = i; j > 0 && Utils.isLess(arr[j], arr[j -1], comparator); j--) {
                 Utils.swap(arr, j, j - 1);
             }
         }
@@ -41,13 +47,78 @@ public class Insertion {
     //      - [2, 2, 5, 8, 9], j-- (0)
     //      - [1, 2, 5, 8, 9] -> tmp is assigned to arr[j]
     public static <T extends Comparable<? super T>> void sortShift(T[] arr) {
-        var length = arr.length;
+        sortShift(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sortShift(T[] arr, Comparator<? super T> comparator) {
+        sortShift(arr, 0, arr.length, comparator);
+    }
 
-        for (var i = 1; i < length; i++) {
+    // Sorts only arr[start, end), so other algorithms can use it for their small sub-arrays
+    public static <T extends Comparable<? super T>> void sortShift(T[] arr, int start, int end) {
+        sortShift(arr, start, end, Comparator.naturalOrder());
+    }
+
+    public static <T> void sortShift(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        for (var i = start + 1; i < end; i++) {
             T tmp = arr[i];
             var j = i;
 
-            while (j > 0 && Utils.isLess(tmp, arr[j - 1])) {
+            while (j > start && Utils.isLess(tmp, arr[j - 1], comparator)) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = tmp;
+        }
+    }
+
+    // Primitive versions of the shift approach above, they compare the primitives with
+    // Utils.isLess, so there is no boxing and no compareTo call per comparison. For double[], the order is
+    // the one given by <, so arrays containing NaN are not supported
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public static void sort(int[] arr, int start, int end) {
+        for (var i = start + 1; i < end; i++) {
+            int tmp = arr[i];
+            var j = i;
+
+            while (j > start && Utils.isLess(tmp, arr[j - 1])) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = tmp;
+        }
+    }
+
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public static void sort(long[] arr, int start, int end) {
+        for (var i = start + 1; i < end; i++) {
+            long tmp = arr[i];
+            var j = i;
+
+            while (j > start && Utils.isLess(tmp, arr[j - 1])) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = tmp;
+        }
+    }
+
+    public static void sort(double[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public static void sort(double[] arr, int start, int end) {
+        for (var i = start + 1; i < end; i++) {
+            double tmp = arr[i];
+            var j = i;
+
+            while (j > start && Utils.isLess(tmp, arr[j - 1])) {
                 arr[j] = arr[j - 1];
                 j--;
             }
@@ -0,0 +1,493 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Merges K sorted runs in a single pass. Merging them two at a time, like MergeSort.merge does,
+ * takes log K passes over all the elements, with a new array for each merge. Here the runs are
+ * the leaves of a loser tree (a tournament tree), so each element costs about log2 K comparisons:
+ *  - every internal node of the tree holds the run that lost the match played there, and the
+ *  run that won the whole tournament, the one with the smallest current value, is kept apart
+ *  - once the winner's value has been taken, its run moves to its next value, and only the
+ *  matches on the path from its leaf to the root are played again, against the losers stored
+ *  on that path. A binary heap needs about twice the comparisons for the same update, as it
+ *  compares both children of every node on the way down
+ *  - a run that ends is treated as holding a value larger than any other, so it never wins again
+ *  - ties go to the run with the lower index, so the merge is stable: equal values come out in
+ *  the order of their runs, and in their order within each run
+ * <p>
+ * The current value of each run is cached in a primitive array, so int and long runs are merged
+ * without boxing anything. Arrays are merged into an output array given by the caller, and
+ * iterators into a new iterator, that only reads from the runs as its own values are read.
+ */
+public class KWayMerge {
+
+    public static void main(String[] args) {
+        var runs = new int[16][];
+        var total = 0;
+        for (var i = 0; i < runs.length; i++) {
+            runs[i] = Utils.createRandomIntArray(1_000_000, 0, Integer.MAX_VALUE);
+            RadixSort.sort(runs[i]);
+            total += runs[i].length;
+        }
+        var output = new int[total];
+
+        long before = System.nanoTime();
+        merge(runs, output);
+        System.out.println("Time in millis: " + (System.nanoTime() - before) / 1_000_000);
+        System.out.println("Sorted: " + Utils.isSorted(output));
+    }
+
+    // Each merge returns the number of values written to output, starting at index 0
+    public static int merge(int[][] runs, int[] output) {
+        validateOutput(totalLength(runs), output.length);
+        var positions = new int[runs.length];
+        var tree = new IntLoserTree(runs.length);
+        for (var r = 0; r < runs.length; r++) {
+            if (runs[r].length > 0) tree.set(r, runs[r][0]);
+        }
+        tree.build();
+
+        int length = 0;
+        int winner;
+        while ((winner = tree.winner()) != -1) {
+            output[length++] = tree.value(winner);
+            int position = ++positions[winner];
+            if (position < runs[winner].length) {
+                tree.set(winner, runs[winner][position]);
+            } else {
+                tree.remove(winner);
+            }
+            tree.replay(winner);
+        }
+        return length;
+    }
+
+    public static int merge(long[][] runs, long[] output) {
+        validateOutput(totalLength(runs), output.length);
+        var positions = new int[runs.length];
+        var tree = new LongLoserTree(runs.length);
+        for (var r = 0; r < runs.length; r++) {
+            if (runs[r].length > 0) tree.set(r, runs[r][0]);
+        }
+        tree.build();
+
+        int length = 0;
+        int winner;
+        while ((winner = tree.winner()) != -1) {
+            output[length++] = tree.value(winner);
+            int position = ++positions[winner];
+            if (position < runs[winner].length) {
+                tree.set(winner, runs[winner][position]);
+            } else {
+                tree.remove(winner);
+            }
+            tree.replay(winner);
+        }
+        return length;
+    }
+
+    public static <T extends Comparable<? super T>> int merge(T[][] runs, T[] output) {
+        return merge(runs, output, Comparator.naturalOrder());
+    }
+
+    public static <T> int merge(T[][] runs, T[] output, Comparator<? super T> comparator) {
+        validateOutput(totalLength(runs), output.length);
+        var positions = new int[runs.length];
+        var tree = new LoserTree<T>(runs.length, comparator);
+        for (var r = 0; r < runs.length; r++) {
+            if (runs[r].length > 0) tree.set(r, runs[r][0]);
+        }
+        tree.build();
+
+        int length = 0;
+        int winner;
+        while ((winner = tree.winner()) != -1) {
+            output[length++] = tree.value(winner);
+            int position = ++positions[winner];
+            if (position < runs[winner].length) {
+                tree.set(winner, runs[winner][position]);
+            } else {
+                tree.remove(winner);
+            }
+            tree.replay(winner);
+        }
+        return length;
+    }
+
+    public static PrimitiveIterator.OfInt mergeInts(List<? extends PrimitiveIterator.OfInt> runs) {
+        var tree = new IntLoserTree(runs.size());
+        for (var r = 0; r < runs.size(); r++) {
+            if (runs.get(r).hasNext()) tree.set(r, runs.get(r).nextInt());
+        }
+        tree.build();
+
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return tree.winner() != -1;
+            }
+
+            @Override
+            public int nextInt() {
+                int winner = tree.winner();
+                if (winner == -1) throw new NoSuchElementException();
+
+                int value = tree.value(winner);
+                var run = runs.get(winner);
+                if (run.hasNext()) {
+                    tree.set(winner, run.nextInt());
+                } else {
+                    tree.remove(winner);
+                }
+                tree.replay(winner);
+                return value;
+            }
+        };
+    }
+
+    public static PrimitiveIterator.OfLong mergeLongs(List<? extends PrimitiveIterator.OfLong> runs) {
+        var tree = new LongLoserTree(runs.size());
+        for (var r = 0; r < runs.size(); r++) {
+            if (runs.get(r).hasNext()) tree.set(r, runs.get(r).nextLong());
+        }
+        tree.build();
+
+        return new PrimitiveIterator.OfLong() {
+            @Override
+            public boolean hasNext() {
+                return tree.winner() != -1;
+            }
+
+            @Override
+            public long nextLong() {
+                int winner = tree.winner();
+                if (winner == -1) throw new NoSuchElementException();
+
+                long value = tree.value(winner);
+                var run = runs.get(winner);
+                if (run.hasNext()) {
+                    tree.set(winner, run.nextLong());
+                } else {
+                    tree.remove(winner);
+                }
+                tree.replay(winner);
+                return value;
+            }
+        };
+    }
+
+    public static <T extends Comparable<? super T>> Iterator<T> merge(List<? extends Iterator<? extends T>> runs) {
+        return merge(runs, Comparator.naturalOrder());
+    }
+
+    public static <T> Iterator<T> merge(List<? extends Iterator<? extends T>> runs, Comparator<? super T> comparator) {
+        var tree = new LoserTree<T>(runs.size(), comparator);
+        for (var r = 0; r < runs.size(); r++) {
+            if (runs.get(r).hasNext()) tree.set(r, runs.get(r).next());
+        }
+        tree.build();
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return tree.winner() != -1;
+            }
+
+            @Override
+            public T next() {
+                int winner = tree.winner();
+                if (winner == -1) throw new NoSuchElementException();
+
+                T value = tree.value(winner);
+                var run = runs.get(winner);
+                if (run.hasNext()) {
+                    tree.set(winner, run.next());
+                } else {
+                    tree.remove(winner);
+                }
+                tree.replay(winner);
+                return value;
+            }
+        };
+    }
+
+    private static int totalLength(int[][] runs) {
+        long total = 0;
+        for (var run : runs) {
+            total += run.length;
+        }
+        return validateTotal(total);
+    }
+
+    private static int totalLength(long[][] runs) {
+        long total = 0;
+        for (var run : runs) {
+            total += run.length;
+        }
+        return validateTotal(total);
+    }
+
+    private static int totalLength(Object[][] runs) {
+        long total = 0;
+        for (var run : runs) {
+            total += run.length;
+        }
+        return validateTotal(total);
+    }
+
+    private static int validateTotal(long total) {
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the runs hold " + total + " values, more than an array can");
+        }
+        return (int) total;
+    }
+
+    private static void validateOutput(int total, int outputLength) {
+        if (outputLength < total) {
+            throw new IllegalArgumentException("output length " + outputLength + " is less than the total length " + total + " of the runs");
+        }
+    }
+
+    // The loser trees below store the tree like a binary heap: node 1 is the root, the children
+    // of node i are 2i and 2i + 1, and run r is the leaf k + r, so the internal nodes 1 to k - 1
+    // are exactly the matches to play. winner() is -1 once every run has ended. Runs must be set
+    // (or left empty) before build(), and each change to the winner must be followed by replay()
+
+    static final class IntLoserTree {
+        private final int k;
+        private final int[] losers;
+        private final int[] values;
+        private final boolean[] ended;
+        private int winner = -1;
+
+        IntLoserTree(int k) {
+            this.k = k;
+            losers = new int[Math.max(k, 1)];
+            values = new int[k];
+            ended = new boolean[k];
+            Arrays.fill(ended, true);
+        }
+
+        void set(int run, int value) {
+            values[run] = value;
+            ended[run] = false;
+        }
+
+        void remove(int run) {
+            ended[run] = true;
+        }
+
+        int value(int run) {
+            return values[run];
+        }
+
+        int winner() {
+            return winner;
+        }
+
+        // Whether run a comes before run b
+        private boolean beats(int a, int b) {
+            if (ended[a] || ended[b]) return !ended[a] || (ended[b] && a < b);
+            return Utils.isLess(values[a], values[b]) || (values[a] == values[b] && a < b);
+        }
+
+        void build() {
+            if (k == 0) return;
+
+            // the winners of every match, only needed while the tree is built
+            var winners = new int[2 * k];
+            for (var r = 0; r < k; r++) {
+                winners[k + r] = r;
+            }
+            for (var node = k - 1; node >= 1; node--) {
+                int a = winners[2 * node], b = winners[2 * node + 1];
+                if (beats(a, b)) {
+                    winners[node] = a;
+                    losers[node] = b;
+                } else {
+                    winners[node] = b;
+                    losers[node] = a;
+                }
+            }
+            setWinner(k == 1 ? 0 : winners[1]);
+        }
+
+        void replay(int run) {
+            int current = run;
+            for (var node = (k + run) >> 1; node >= 1; node >>= 1) {
+                if (beats(losers[node], current)) {
+                    int swap = losers[node];
+                    losers[node] = current;
+                    current = swap;
+                }
+            }
+            setWinner(current);
+        }
+
+        private void setWinner(int run) {
+            winner = ended[run] ? -1 : run;
+        }
+    }
+
+    static final class LongLoserTree {
+        private final int k;
+        private final int[] losers;
+        private final long[] values;
+        private final boolean[] ended;
+        private int winner = -1;
+
+        LongLoserTree(int k) {
+            this.k = k;
+            losers = new int[Math.max(k, 1)];
+            values = new long[k];
+            ended = new boolean[k];
+            Arrays.fill(ended, true);
+        }
+
+        void set(int run, long value) {
+            values[run] = value;
+            ended[run] = false;
+        }
+
+        void remove(int run) {
+            ended[run] = true;
+        }
+
+        long value(int run) {
+            return values[run];
+        }
+
+        int winner() {
+            return winner;
+        }
+
+        private boolean beats(int a, int b) {
+            if (ended[a] || ended[b]) return !ended[a] || (ended[b] && a < b);
+            return Utils.isLess(values[a], values[b]) || (values[a] == values[b] && a < b);
+        }
+
+        void build() {
+            if (k == 0) return;
+
+            var winners = new int[2 * k];
+            for (var r = 0; r < k; r++) {
+                winners[k + r] = r;
+            }
+            for (var node = k - 1; node >= 1; node--) {
+                int a = winners[2 * node], b = winners[2 * node + 1];
+                if (beats(a, b)) {
+                    winners[node] = a;
+                    losers[node] = b;
+                } else {
+                    winners[node] = b;
+                    losers[node] = a;
+                }
+            }
+            setWinner(k == 1 ? 0 : winners[1]);
+        }
+
+        void replay(int run) {
+            int current = run;
+            for (var node = (k + run) >> 1; node >= 1; node >>= 1) {
+                if (beats(losers[node], current)) {
+                    int swap = losers[node];
+                    losers[node] = current;
+                    current = swap;
+                }
+            }
+            setWinner(current);
+        }
+
+        private void setWinner(int run) {
+            winner = ended[run] ? -1 : run;
+        }
+    }
+
+    static final class LoserTree<T> {
+        private final int k;
+        private final int[] losers;
+        private final Object[] values;
+        private final boolean[] ended;
+        private final Comparator<? super T> comparator;
+        private int winner = -1;
+
+        LoserTree(int k, Comparator<? super T> comparator) {
+            this.k = k;
+            this.comparator = comparator;
+            losers = new int[Math.max(k, 1)];
+            values = new Object[k];
+            ended = new boolean[k];
+            Arrays.fill(ended, true);
+        }
+
+        void set(int run, T value) {
+            values[run] = value;
+            ended[run] = false;
+        }
+
+        // The value is dropped, so the tree does not keep it alive
+        void remove(int run) {
+            values[run] = null;
+            ended[run] = true;
+        }
+
+        @SuppressWarnings("unchecked")
+        T value(int run) {
+            return (T) values[run];
+        }
+
+        int winner() {
+            return winner;
+        }
+
+        private boolean beats(int a, int b) {
+            if (ended[a] || ended[b]) return !ended[a] || (ended[b] && a < b);
+            int cmp = Utils.compare(value(a), value(b), comparator);
+            return cmp < 0 || (cmp == 0 && a < b);
+        }
+
+        void build() {
+            if (k == 0) return;
+
+            var winners = new int[2 * k];
+            for (var r = 0; r < k; r++) {
+                winners[k + r] = r;
+            }
+            for (var node = k - 1; node >= 1; node--) {
+                int a = winners[2 * node], b = winners[2 * node + 1];
+                if (beats(a, b)) {
+                    winners[node] = a;
+                    losers[node] = b;
+                } else {
+                    winners[node] = b;
+                    losers[node] = a;
+                }
+            }
+            setWinner(k == 1 ? 0 : winners[1]);
+        }
+
+        void replay(int run) {
+            int current = run;
+            for (var node = (k + run) >> 1; node >= 1; node >>= 1) {
+                if (beats(losers[node], current)) {
+                    int swap = losers[node];
+                    losers[node] = current;
+                    current = swap;
+                }
+            }
+            setWinner(current);
+        }
+
+        private void setWinner(int run) {
+            winner = ended[run] ? -1 : run;
+        }
+    }
+}
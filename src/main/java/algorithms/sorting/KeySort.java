@@ -0,0 +1,138 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorting objects by a comparator costs a virtual call, and often a few field reads through
+ * pointers, for each of the N log N comparisons. When the order comes from a single int or long
+ * key, it is cheaper to read the key of every object once, into a primitive array, and sort that:
+ *  - int keys are packed with the index of their object into a long, the key in the high 32 bits
+ *  and the index in the low 32 bits, so sorting the longs orders them by key, and then by index
+ *  for equal keys, which makes the sort stable
+ *  - long keys leave no room for the index, so the keys and the indices are sorted together,
+ *  with the same LSD passes as RadixSort, moving each index along with its key
+ * <p>
+ * Both are radix sorts, so there are no comparisons at all, and the key function is called
+ * exactly N times. The order*() methods return the sorted indices and leave the array as it is,
+ * the sort*() methods use them to rearrange the array, with a single copy of it.
+ */
+public class KeySort {
+    private static final int RADIX = 256;
+    private static final int MASK = RADIX - 1;
+
+    public static void main(String[] args) {
+        var arr = Utils.createMultipleIdenticalArrays(2, 1_000_000, 0, Integer.MAX_VALUE);
+
+        Utils.runWithTime(a -> sortByInt(a, Integer::intValue), arr[0]);
+        System.out.println("Sorted: " + Utils.isSorted(arr[0]));
+
+        System.out.println("\nComparator sort:");
+        Utils.runWithTime(a -> MergeSort.withBuffer(a, Comparator.comparingInt(Integer::intValue)), arr[1]);
+        System.out.println("Sorted: " + Utils.isSorted(arr[1]));
+    }
+
+    public static <T> void sortByInt(T[] arr, ToIntFunction<? super T> key) {
+        rearrange(arr, orderByInt(arr, key));
+    }
+
+    public static <T> void sortByLong(T[] arr, ToLongFunction<? super T> key) {
+        rearrange(arr, orderByLong(arr, key));
+    }
+
+    // Indices of arr in the order of their keys, equal keys keep the order of their indices
+    public static <T> int[] orderByInt(T[] arr, ToIntFunction<? super T> key) {
+        var length = arr.length;
+        var packed = new long[length];
+        for (var i = 0; i < length; i++) {
+            packed[i] = (long) key.applyAsInt(arr[i]) << 32 | i;
+        }
+        return unpack(packed);
+    }
+
+    // Indices of the keys in their sorted order, used by ArgSort for int keys
+    static int[] order(int[] keys) {
+        var length = keys.length;
+        var packed = new long[length];
+        for (var i = 0; i < length; i++) {
+            packed[i] = (long) keys[i] << 32 | i;
+        }
+        return unpack(packed);
+    }
+
+    // Sorts the packed keys and indices, and keeps only the indices
+    private static int[] unpack(long[] packed) {
+        var length = packed.length;
+        RadixSort.sort(packed);
+
+        var order = new int[length];
+        for (var i = 0; i < length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    public static <T> int[] orderByLong(T[] arr, ToLongFunction<? super T> key) {
+        var keys = new long[arr.length];
+        for (var i = 0; i < keys.length; i++) {
+            keys[i] = key.applyAsLong(arr[i]);
+        }
+        return order(keys);
+    }
+
+    // Sorts a copy of the keys, moving the index of each key along with it
+    static int[] order(long[] keys) {
+        var length = keys.length;
+        var order = new int[length];
+        for (var i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        if (length < 2) return order;
+
+        var counts = new int[Long.BYTES][RADIX + 1];
+        for (var key : keys) {
+            long flipped = key ^ Long.MIN_VALUE;
+            for (var b = 0; b < Long.BYTES; b++) {
+                counts[b][(int) ((flipped >>> (8 * b)) & MASK) + 1]++;
+            }
+        }
+
+        long[] src = keys.clone();
+        long[] dst = new long[length];
+        int[] srcOrder = order;
+        int[] dstOrder = new int[length];
+        for (var b = 0; b < Long.BYTES; b++) {
+            var count = counts[b];
+            int shift = 8 * b;
+            if (count[(int) (((src[0] ^ Long.MIN_VALUE) >>> shift) & MASK) + 1] == length) continue;
+
+            for (var r = 0; r < RADIX; r++) {
+                count[r + 1] += count[r];
+            }
+            for (var i = 0; i < length; i++) {
+                int position = count[(int) (((src[i] ^ Long.MIN_VALUE) >>> shift) & MASK)]++;
+                dst[position] = src[i];
+                dstOrder[position] = srcOrder[i];
+            }
+
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+            int[] swapOrder = srcOrder;
+            srcOrder = dstOrder;
+            dstOrder = swapOrder;
+        }
+        return srcOrder;
+    }
+
+    private static <T> void rearrange(T[] arr, int[] order) {
+        T[] copy = Arrays.copyOf(arr, arr.length);
+        for (var i = 0; i < order.length; i++) {
+            arr[i] = copy[order[i]];
+        }
+    }
+}
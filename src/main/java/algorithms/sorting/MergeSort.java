@@ -2,7 +2,9 @@ package algorithms.sorting;
 
 import utils.Utils;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.function.Consumer;
 
 /**
@@ -35,6 +37,8 @@ import java.util.function.Consumer;
  *      place, based on start and end positions
  */
 public class MergeSort {
+    // Sub-arrays up to this size are sorted with insertion sort by the buffered versions
+    private static final int INSERTION_CUTOFF = 12;
 
     public static void main(String[] args) {
         var arr = Utils.createRandomArray(10,0, 20);
@@ -44,12 +48,20 @@ public class MergeSort {
     }
 
     public static <T extends Comparable<? super T>> void sort(T[] arr) {
-        sort(arr, 0, arr.length);
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, comparator);
     }
 
     // This is called top-bottom approach, meaning there is also a bottom-up approach
-    // see page 277 of the Algorithms book
+    // see page 277 of the Algorithms book, and bottomUp() below
     public static <T extends Comparable<? super T>> void sort(T[] arr, int start, int end) {
+        sort(arr, start, end, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, int start, int end, Comparator<? super T> comparator) {
         // base case for recursion, if the size of the subarray is 1 or 0
         if (end - start <= 1) return;
 
@@ -60,31 +72,40 @@ public class MergeSort {
         int middle = start + (end - start) / 2;
 
         // call sort for the left and right parts
-        sort(arr, start, middle);
-        sort(arr, middle, end);
+        Utils.enterRecursion();
+        sort(arr, start, middle, comparator);
+        sort(arr, middle, end, comparator);
+        Utils.exitRecursion();
 
         // create sub-arrays for merging
         T[] left = Arrays.copyOfRange(arr, start, middle);
         T[] right = Arrays.copyOfRange(arr, middle, end);
+        Utils.countAllocation(left.length);
+        Utils.countAllocation(right.length);
 
         // merge the parts
-        T[] merged = merge(left, right);
+        T[] merged = merge(left, right, comparator);
 
         // copy the merged elements back into the original array
         System.arraycopy(merged, 0, arr, start, merged.length);
     }
 
-    @SuppressWarnings("unchecked")
     public static <T extends Comparable<? super T>> T[] merge(T[] left, T[] right) {
+        return merge(left, right, Comparator.naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T[] merge(T[] left, T[] right, Comparator<? super T> comparator) {
         var lengthL = left.length;
         var lengthR = right.length;
-        T[] result = (T[]) new Comparable[lengthL + lengthR];
+        T[] result = (T[]) Array.newInstance(left.getClass().getComponentType(), lengthL + lengthR);
+        Utils.countAllocation(result.length);
 
         int leftIndex = 0;
         int rightIndex = 0;
         int i = 0;
         while (leftIndex < lengthL && rightIndex < lengthR) {
-            if (Utils.isLess(left[leftIndex], right[rightIndex])) {
+            if (Utils.isLess(left[leftIndex], right[rightIndex], comparator)) {
                 result[i++] = left[leftIndex++];
             } else {
                 result[i++] = right[rightIndex++];
@@ -102,31 +123,343 @@ public class MergeSort {
         return result;
     }
 
+    // This version allocates a single buffer for the whole sort, instead of the left, right
+    // and merged copies that sort() creates at every level. The trick is to never copy the
+    // merged result back: the buffer starts as a copy of the array, and each level of the
+    // recursion sorts its two halves into one of them, then merges those halves into the
+    // other one. The roles swap at every level (ping-pong), so the top level merges into arr.
+    // The buffer can also be provided by the caller, and reused across many sorts, in which
+    // case the sort itself allocates nothing at all
+    public static <T extends Comparable<? super T>> void withBuffer(T[] arr) {
+        withBuffer(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void withBuffer(T[] arr, Comparator<? super T> comparator) {
+        Utils.countAllocation(arr.length);
+        withBuffer(arr, arr.clone(), comparator);
+    }
+
+    public static <T extends Comparable<? super T>> void withBuffer(T[] arr, T[] buffer) {
+        withBuffer(arr, buffer, Comparator.naturalOrder());
+    }
+
+    public static <T> void withBuffer(T[] arr, T[] buffer, Comparator<? super T> comparator) {
+        validateBuffer(arr.length, buffer.length);
+        System.arraycopy(arr, 0, buffer, 0, arr.length);
+        pingPong(buffer, arr, 0, arr.length, comparator);
+    }
+
+    // On entry, src and dst hold the same elements in [start, end), on exit dst holds them sorted.
+    // ParallelMergeSort uses it to sort its leaves
+    static <T> void pingPong(T[] src, T[] dst, int start, int end, Comparator<? super T> comparator) {
+        if (end - start <= INSERTION_CUTOFF) {
+            Insertion.sortShift(dst, start, end, comparator);
+            return;
+        }
+
+        int middle = start + (end - start) / 2;
+        Utils.enterRecursion();
+        pingPong(dst, src, start, middle, comparator);
+        pingPong(dst, src, middle, end, comparator);
+        Utils.exitRecursion();
+        mergeInto(src, dst, start, middle, end, comparator);
+    }
+
+    // This is the bottom-up approach mentioned in the top-bottom sort above. Instead of
+    // splitting the array recursively, it does passes over the whole array, merging runs of
+    // width w into runs of width 2w, until a single run is left. The first pass sorts small
+    // blocks with insertion sort, so merging starts from runs of INSERTION_CUTOFF elements.
+    // There is no recursion at all, stack usage is constant regardless of the array size,
+    // and each pass reads and writes both arrays sequentially. Each pass merges from one of
+    // arr and buffer into the other, so the result is only copied back once, if it ends up
+    // in the buffer. The bounds are longs: on arrays of more than 2^30 entries, start + 2 * width
+    // would overflow an int, every index passed on is clamped to the length first
+    public static <T extends Comparable<? super T>> void bottomUp(T[] arr) {
+        bottomUp(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void bottomUp(T[] arr, Comparator<? super T> comparator) {
+        Utils.countAllocation(arr.length);
+        bottomUp(arr, arr.clone(), comparator);
+    }
+
+    public static <T extends Comparable<? super T>> void bottomUp(T[] arr, T[] buffer) {
+        bottomUp(arr, buffer, Comparator.naturalOrder());
+    }
+
+    public static <T> void bottomUp(T[] arr, T[] buffer, Comparator<? super T> comparator) {
+        validateBuffer(arr.length, buffer.length);
+        var length = arr.length;
+
+        for (long start = 0; start < length; start += INSERTION_CUTOFF) {
+            Insertion.sortShift(arr, (int) start, (int) Math.min(start + INSERTION_CUTOFF, length), comparator);
+        }
+
+        T[] src = arr;
+        T[] dst = buffer;
+        for (long width = INSERTION_CUTOFF; width < length; width *= 2) {
+            for (long start = 0; start < length; start += 2 * width) {
+                mergeInto(src, dst, (int) start, (int) Math.min(start + width, length), (int) Math.min(start + 2 * width, length), comparator);
+            }
+
+            T[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    // Merges src[start, middle) and src[middle, end) into dst[start, end)
+    private static <T> void mergeInto(T[] src, T[] dst, int start, int middle, int end, Comparator<? super T> comparator) {
+        // the halves are already in order (or there is no right half), a copy is enough
+        if (middle >= end || !Utils.isLess(src[middle], src[middle - 1], comparator)) {
+            System.arraycopy(src, start, dst, start, end - start);
+            return;
+        }
+
+        int leftIndex = start;
+        int rightIndex = middle;
+        for (var i = start; i < end; i++) {
+            if (leftIndex >= middle) {
+                dst[i] = src[rightIndex++];
+            } else if (rightIndex >= end) {
+                dst[i] = src[leftIndex++];
+            } else if (Utils.isLess(src[rightIndex], src[leftIndex], comparator)) {
+                dst[i] = src[rightIndex++];
+            } else {
+                dst[i] = src[leftIndex++];
+            }
+        }
+    }
+
+    public static void withBuffer(int[] arr) {
+        Utils.countAllocation(arr.length);
+        withBuffer(arr, arr.clone());
+    }
+
+    public static void withBuffer(int[] arr, int[] buffer) {
+        validateBuffer(arr.length, buffer.length);
+        System.arraycopy(arr, 0, buffer, 0, arr.length);
+        pingPong(buffer, arr, 0, arr.length);
+    }
+
+    static void pingPong(int[] src, int[] dst, int start, int end) {
+        if (end - start <= INSERTION_CUTOFF) {
+            Insertion.sort(dst, start, end);
+            return;
+        }
+
+        int middle = start + (end - start) / 2;
+        Utils.enterRecursion();
+        pingPong(dst, src, start, middle);
+        pingPong(dst, src, middle, end);
+        Utils.exitRecursion();
+        mergeInto(src, dst, start, middle, end);
+    }
+
+    public static void bottomUp(int[] arr) {
+        Utils.countAllocation(arr.length);
+        bottomUp(arr, arr.clone());
+    }
+
+    public static void bottomUp(int[] arr, int[] buffer) {
+        validateBuffer(arr.length, buffer.length);
+        var length = arr.length;
+
+        for (long start = 0; start < length; start += INSERTION_CUTOFF) {
+            Insertion.sort(arr, (int) start, (int) Math.min(start + INSERTION_CUTOFF, length));
+        }
+
+        int[] src = arr;
+        int[] dst = buffer;
+        for (long width = INSERTION_CUTOFF; width < length; width *= 2) {
+            for (long start = 0; start < length; start += 2 * width) {
+                mergeInto(src, dst, (int) start, (int) Math.min(start + width, length), (int) Math.min(start + 2 * width, length));
+            }
+
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    private static void mergeInto(int[] src, int[] dst, int start, int middle, int end) {
+        if (middle >= end || !Utils.isLess(src[middle], src[middle - 1])) {
+            System.arraycopy(src, start, dst, start, end - start);
+            return;
+        }
+
+        int leftIndex = start;
+        int rightIndex = middle;
+        for (var i = start; i < end; i++) {
+            if (leftIndex >= middle) {
+                dst[i] = src[rightIndex++];
+            } else if (rightIndex >= end) {
+                dst[i] = src[leftIndex++];
+            } else if (Utils.isLess(src[rightIndex], src[leftIndex])) {
+                dst[i] = src[rightIndex++];
+            } else {
+                dst[i] = src[leftIndex++];
+            }
+        }
+    }
+
+    private static void validateBuffer(int arrayLength, int bufferLength) {
+        if (bufferLength < arrayLength) {
+            throw new IllegalArgumentException("buffer length " + bufferLength + " is less than the array length " + arrayLength);
+        }
+    }
+
+    // Primitive versions: the recursion is the same, but instead of copying both halves and
+    // allocating the merged result at every level, a single aux array is allocated up front
+    // and each merge copies its own region into it. For double[], NaN is not supported
+    public static void sort(int[] arr) {
+        Utils.countAllocation(arr.length);
+        sort(arr, new int[arr.length], 0, arr.length);
+    }
+
+    private static void sort(int[] arr, int[] aux, int start, int end) {
+        if (end - start <= 1) return;
+
+        int middle = start + (end - start) / 2;
+        Utils.enterRecursion();
+        sort(arr, aux, start, middle);
+        sort(arr, aux, middle, end);
+        Utils.exitRecursion();
+        merge(arr, aux, start, middle, end);
+    }
+
+    // Merges arr[start, middle) and arr[middle, end), using the same region of aux
+    // as the temporary copy, so the whole sort allocates a single buffer
+    private static void merge(int[] arr, int[] aux, int start, int middle, int end) {
+        System.arraycopy(arr, start, aux, start, end - start);
+
+        int leftIndex = start;
+        int rightIndex = middle;
+        for (var i = start; i < end; i++) {
+            if (leftIndex >= middle) {
+                arr[i] = aux[rightIndex++];
+            } else if (rightIndex >= end) {
+                arr[i] = aux[leftIndex++];
+            } else if (Utils.isLess(aux[rightIndex], aux[leftIndex])) {
+                arr[i] = aux[rightIndex++];
+            } else {
+                arr[i] = aux[leftIndex++];
+            }
+        }
+    }
+
+    public static void sort(long[] arr) {
+        Utils.countAllocation(arr.length);
+        sort(arr, new long[arr.length], 0, arr.length);
+    }
+
+    private static void sort(long[] arr, long[] aux, int start, int end) {
+        if (end - start <= 1) return;
+
+        int middle = start + (end - start) / 2;
+        Utils.enterRecursion();
+        sort(arr, aux, start, middle);
+        sort(arr, aux, middle, end);
+        Utils.exitRecursion();
+        merge(arr, aux, start, middle, end);
+    }
+
+    private static void merge(long[] arr, long[] aux, int start, int middle, int end) {
+        System.arraycopy(arr, start, aux, start, end - start);
+
+        int leftIndex = start;
+        int rightIndex = middle;
+        for (var i = start; i < end; i++) {
+            if (leftIndex >= middle) {
+                arr[i] = aux[rightIndex++];
+            } else if (rightIndex >= end) {
+                arr[i] = aux[leftIndex++];
+            } else if (Utils.isLess(aux[rightIndex], aux[leftIndex])) {
+                arr[i] = aux[rightIndex++];
+            } else {
+                arr[i] = aux[leftIndex++];
+            }
+        }
+    }
+
+    public static void sort(double[] arr) {
+        Utils.countAllocation(arr.length);
+        sort(arr, new double[arr.length], 0, arr.length);
+    }
+
+    private static void sort(double[] arr, double[] aux, int start, int end) {
+        if (end - start <= 1) return;
+
+        int middle = start + (end - start) / 2;
+        Utils.enterRecursion();
+        sort(arr, aux, start, middle);
+        sort(arr, aux, middle, end);
+        Utils.exitRecursion();
+        merge(arr, aux, start, middle, end);
+    }
+
+    private static void merge(double[] arr, double[] aux, int start, int middle, int end) {
+        System.arraycopy(arr, start, aux, start, end - start);
+
+        int leftIndex = start;
+        int rightIndex = middle;
+        for (var i = start; i < end; i++) {
+            if (leftIndex >= middle) {
+                arr[i] = aux[rightIndex++];
+            } else if (rightIndex >= end) {
+                arr[i] = aux[leftIndex++];
+            } else if (Utils.isLess(aux[rightIndex], aux[leftIndex])) {
+                arr[i] = aux[rightIndex++];
+            } else {
+                arr[i] = aux[leftIndex++];
+            }
+        }
+    }
+
     // This implementation sorts the items in place, so it requires less memory,
     // however it is more complicated, as it requires keeping track of multiple indexes
     public static <T extends Comparable<? super T>> void inPlace(T[] arr) {
-        inPlace(arr, 0, arr.length);
+        inPlace(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void inPlace(T[] arr, Comparator<? super T> comparator) {
+        inPlace(arr, 0, arr.length, comparator);
     }
 
-    @SuppressWarnings("unchecked")
     public static <T extends Comparable<? super T>> void inPlace(T[] arr, int start, int end) {
+        inPlace(arr, start, end, Comparator.naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> void inPlace(T[] arr, int start, int end, Comparator<? super T> comparator) {
         // base case for recursion, if the size of the subarray is 1 or 0
         if (end - start <= 1) return;
 
         int middle = start + (end - start) / 2;
 
         // call sort for the left and right parts
-        sort(arr, start, middle);
-        sort(arr, middle, end);
+        Utils.enterRecursion();
+        inPlace(arr, start, middle, comparator);
+        inPlace(arr, middle, end, comparator);
+        Utils.exitRecursion();
 
         // merge the parts in-place
         int leftIndex = start;
         int rightIndex = middle;
         int tempIndex = 0;
-        T[] tempArray = (T[]) new Comparable[end - start];
+        T[] tempArray = (T[]) new Object[end - start];
+        Utils.countAllocation(tempArray.length);
 
         while (leftIndex < middle && rightIndex < end) {
-            if (Utils.isLess(arr[leftIndex], arr[rightIndex])) {
+            if (Utils.isLess(arr[leftIndex], arr[rightIndex], comparator)) {
                 tempArray[tempIndex++] = arr[leftIndex++];
             } else {
                 tempArray[tempIndex++] = arr[rightIndex++];
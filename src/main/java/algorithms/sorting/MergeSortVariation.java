@@ -30,10 +30,14 @@ public class MergeSortVariation {
 
         int[] left = Arrays.copyOfRange(arr, 0, mid);
         int[] right = Arrays.copyOfRange(arr, mid, arr.length);
+        Utils.countAllocation(left.length);
+        Utils.countAllocation(right.length);
 
         // sort each side
+        Utils.enterRecursion();
         sort(left);
         sort(right);
+        Utils.exitRecursion();
 
         // merge
         merge(arr, left, right);
@@ -43,7 +47,7 @@ public class MergeSortVariation {
         int i = 0, j = 0, k = 0;
 
         while (j < left.length && k < right.length) {
-            if (left[j] < right[k]) {
+            if (Utils.isLess(left[j], right[k])) {
                 result[i++] = left[j++];
             } else {
                 result[i++] = right[k++];
@@ -73,6 +77,8 @@ public class MergeSortVariation {
 
         int[] left = Arrays.copyOfRange(arr, 0, mid);
         int[] right = Arrays.copyOfRange(arr, mid, arr.length);
+        Utils.countAllocation(left.length);
+        Utils.countAllocation(right.length);
 
         // sort each side, if the array is smaller than 15 elements, use
         // selection sort - it should improve performance for small arrays
@@ -82,13 +88,15 @@ public class MergeSortVariation {
             Selection.sort(left);
             Selection.sort(right);
         } else {
+            Utils.enterRecursion();
             sort(left);
             sort(right);
+            Utils.exitRecursion();
         }
 
         // If the last element of the left array is smaller than the first element
         // of the right array, it is already in order
-        if (left[left.length - 1] < right[0]) {
+        if (Utils.isLess(left[left.length - 1], right[0])) {
             // Directly copy the elements of left and right back into arr
             System.arraycopy(left, 0, arr, 0, left.length);
             System.arraycopy(right, 0, arr, mid, right.length);
@@ -0,0 +1,761 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+/**
+ * An adaptive, stable merge sort in the style of TimSort. Instead of splitting the array in fixed
+ * halves like MergeSort, it walks the array once looking for the runs that are already in order
+ * (natural runs), and only merges those:
+ *  - a run is the longest ascending or strictly descending sequence starting at the current
+ *  index, descending runs are reversed in place
+ *  - runs shorter than minRun (between 16 and 32 elements, see minRunLength) are extended with
+ *  binary insertion sort, so there are never too many tiny runs to merge
+ *  - runs are pushed to a stack, and merged as soon as the top of the stack breaks the balance
+ *  invariants described in mergeCollapse, the remaining runs are merged at the end
+ *  - merging copies only the shorter run into a temporary buffer, and when one of the runs keeps
+ *  winning, it switches to galloping: an exponential search that finds how many elements can be
+ *  moved at once, which are then copied in a single System.arraycopy
+ * <p>
+ * An already sorted (or reverse sorted) array is a single run, so it is detected in N - 1
+ * comparisons and nothing is allocated. Appending a small batch to a sorted array produces two
+ * runs, and merging them costs a couple of gallops instead of N comparisons.
+ */
+public class NaturalMergeSort {
+    public static final String name = "Natural Merge Sort";
+
+    // Arrays shorter than this are sorted with binary insertion sort only
+    private static final int MIN_MERGE = 32;
+
+    // Number of consecutive wins by the same run before merging switches to galloping
+    private static final int MIN_GALLOP = 7;
+
+    public static void main(String[] args) {
+        // a sorted array with a small unsorted batch appended at the end
+        var arr = Utils.createRandomArray(1_000_000, 0, 1_000_000);
+        Arrays.sort(arr);
+        var batch = Utils.createRandomArray(1_000, 0, 1_000_000);
+        var feed = new Integer[arr.length + batch.length];
+        System.arraycopy(arr, 0, feed, 0, arr.length);
+        System.arraycopy(batch, 0, feed, arr.length, batch.length);
+
+        Consumer<Integer[]> naturalMergeSort = NaturalMergeSort::sort;
+        Utils.runWithTime(naturalMergeSort, feed);
+        System.out.println("Sorted: " + Utils.isSorted(feed));
+    }
+
+    public static <T extends Comparable<? super T>> void sort(T[] arr) {
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        var length = arr.length;
+        if (length < 2) return;
+
+        var runLength = countRunAndMakeAscending(arr, 0, length, comparator);
+        if (runLength == length) return;
+
+        if (length < MIN_MERGE) {
+            binarySort(arr, 0, length, runLength, comparator);
+            return;
+        }
+
+        var merger = new Merger<>(arr, comparator);
+        var minRun = minRunLength(length);
+        var start = 0;
+        while (true) {
+            if (runLength < minRun) {
+                var forced = Math.min(length - start, minRun);
+                binarySort(arr, start, start + forced, start + runLength, comparator);
+                runLength = forced;
+            }
+
+            merger.pushRun(start, runLength);
+            merger.mergeCollapse();
+
+            start += runLength;
+            if (start == length) break;
+            runLength = countRunAndMakeAscending(arr, start, length, comparator);
+        }
+
+        merger.mergeForceCollapse();
+    }
+
+    public static void sort(int[] arr) {
+        var length = arr.length;
+        if (length < 2) return;
+
+        var runLength = countRunAndMakeAscending(arr, 0, length);
+        if (runLength == length) return;
+
+        if (length < MIN_MERGE) {
+            binarySort(arr, 0, length, runLength);
+            return;
+        }
+
+        var merger = new IntMerger(arr);
+        var minRun = minRunLength(length);
+        var start = 0;
+        while (true) {
+            if (runLength < minRun) {
+                var forced = Math.min(length - start, minRun);
+                binarySort(arr, start, start + forced, start + runLength);
+                runLength = forced;
+            }
+
+            merger.pushRun(start, runLength);
+            merger.mergeCollapse();
+
+            start += runLength;
+            if (start == length) break;
+            runLength = countRunAndMakeAscending(arr, start, length);
+        }
+
+        merger.mergeForceCollapse();
+    }
+
+    // Returns a run length between MIN_MERGE / 2 and MIN_MERGE, chosen so that length / minRun
+    // is a power of two, or slightly less than one, which keeps the final merges balanced
+    private static int minRunLength(int length) {
+        var remainder = 0;
+        while (length >= MIN_MERGE) {
+            remainder |= (length & 1);
+            length >>= 1;
+        }
+        return length + remainder;
+    }
+
+    // The merge state of a single sort: the pending runs and the temporary buffer, which is
+    // allocated on the first merge and only grows when a longer run has to be copied
+    private static class Merger<T> {
+        private final T[] arr;
+        private final Comparator<? super T> comparator;
+        private T[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        // stack of pending runs, run i starts at runBase[i] and is runLen[i] elements long
+        private final int[] runBase;
+        private final int[] runLen;
+        private int stackSize = 0;
+
+        Merger(T[] arr, Comparator<? super T> comparator) {
+            this.arr = arr;
+            this.comparator = comparator;
+            this.tmp = newArray(0);
+
+            var length = arr.length;
+            var stackLength = length < 120 ? 5 : length < 1542 ? 10 : length < 119_151 ? 24 : 49;
+            runBase = new int[stackLength];
+            runLen = new int[stackLength];
+        }
+
+        private void pushRun(int base, int length) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = length;
+            stackSize++;
+        }
+
+        // Merges runs until the invariants below hold for the top of the stack, they keep the
+        // run lengths growing at least as fast as the Fibonacci numbers, so the stack stays
+        // small and the runs being merged have roughly balanced lengths
+        //  - runLen[i - 3] > runLen[i - 2] + runLen[i - 1]
+        //  - runLen[i - 2] > runLen[i - 1]
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        // Merges the runs at stack positions i and i + 1
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // elements of the first run that are not greater than the start of the second
+            // run are already in their final place, and so are the elements of the second run
+            // that are not less than the end of the first run
+            int k = gallopRight(arr[base2], arr, base1, len1, 0, comparator);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+
+            len2 = gallopLeft(arr[base1 + len1 - 1], arr, base2, len2, len2 - 1, comparator);
+            if (len2 == 0) return;
+
+            // copy the shorter run into tmp
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        // Merges left to right, with the first run copied into tmp
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            ensureCapacity(len1);
+            System.arraycopy(arr, base1, tmp, 0, len1);
+
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int end2 = base2 + len2;
+            int dest = base1;
+            int wins1 = 0;
+            int wins2 = 0;
+
+            while (cursor1 < len1 && cursor2 < end2) {
+                if (Utils.isLess(arr[cursor2], tmp[cursor1], comparator)) {
+                    arr[dest++] = arr[cursor2++];
+                    wins1 = 0;
+                    if (++wins2 >= minGallop && cursor2 < end2) {
+                        int count = gallopLeft(tmp[cursor1], arr, cursor2, end2 - cursor2, 0, comparator);
+                        System.arraycopy(arr, cursor2, arr, dest, count);
+                        dest += count;
+                        cursor2 += count;
+                        wins2 = 0;
+                        adjustGallop(count);
+                    }
+                } else {
+                    arr[dest++] = tmp[cursor1++];
+                    wins2 = 0;
+                    if (++wins1 >= minGallop && cursor1 < len1) {
+                        int count = gallopRight(arr[cursor2], tmp, cursor1, len1 - cursor1, 0, comparator);
+                        System.arraycopy(tmp, cursor1, arr, dest, count);
+                        dest += count;
+                        cursor1 += count;
+                        wins1 = 0;
+                        adjustGallop(count);
+                    }
+                }
+            }
+
+            // whatever is left of the second run is already in place
+            System.arraycopy(tmp, cursor1, arr, dest, len1 - cursor1);
+        }
+
+        // Merges right to left, with the second run copied into tmp
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            ensureCapacity(len2);
+            System.arraycopy(arr, base2, tmp, 0, len2);
+
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            int wins1 = 0;
+            int wins2 = 0;
+
+            while (cursor1 >= base1 && cursor2 >= 0) {
+                if (Utils.isLess(tmp[cursor2], arr[cursor1], comparator)) {
+                    arr[dest--] = arr[cursor1--];
+                    wins2 = 0;
+                    if (++wins1 >= minGallop && cursor1 >= base1) {
+                        int remaining = cursor1 - base1 + 1;
+                        int count = remaining - gallopRight(tmp[cursor2], arr, base1, remaining, remaining - 1, comparator);
+                        System.arraycopy(arr, cursor1 - count + 1, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor1 -= count;
+                        wins1 = 0;
+                        adjustGallop(count);
+                    }
+                } else {
+                    arr[dest--] = tmp[cursor2--];
+                    wins1 = 0;
+                    if (++wins2 >= minGallop && cursor2 >= 0) {
+                        int remaining = cursor2 + 1;
+                        int count = remaining - gallopLeft(arr[cursor1], tmp, 0, remaining, remaining - 1, comparator);
+                        System.arraycopy(tmp, cursor2 - count + 1, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor2 -= count;
+                        wins2 = 0;
+                        adjustGallop(count);
+                    }
+                }
+            }
+
+            // whatever is left of the first run is already in place
+            System.arraycopy(tmp, 0, arr, dest - cursor2, cursor2 + 1);
+        }
+
+        // Galloping pays off when it skips many elements at once, and costs extra comparisons
+        // when it does not, so it gets easier to enter while it is paying off and harder otherwise
+        private void adjustGallop(int count) {
+            if (count >= MIN_GALLOP) {
+                if (minGallop > 1) minGallop--;
+            } else {
+                minGallop++;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (tmp.length < capacity) {
+                tmp = newArray(Math.max(capacity, Math.min(arr.length >>> 1, tmp.length * 2)));
+                Utils.countAllocation(tmp.length);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T[] newArray(int length) {
+            return (T[]) new Object[length];
+        }
+    }
+
+    private static class IntMerger {
+        private final int[] arr;
+        private int[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        private final int[] runBase;
+        private final int[] runLen;
+        private int stackSize = 0;
+
+        IntMerger(int[] arr) {
+            this.arr = arr;
+            this.tmp = new int[0];
+
+            var length = arr.length;
+            var stackLength = length < 120 ? 5 : length < 1542 ? 10 : length < 119_151 ? 24 : 49;
+            runBase = new int[stackLength];
+            runLen = new int[stackLength];
+        }
+
+        private void pushRun(int base, int length) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = length;
+            stackSize++;
+        }
+
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        // Merges the runs at stack positions i and i + 1
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int k = gallopRight(arr[base2], arr, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+
+            len2 = gallopLeft(arr[base1 + len1 - 1], arr, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            // copy the shorter run into tmp
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        // Merges left to right, with the first run copied into tmp
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            ensureCapacity(len1);
+            System.arraycopy(arr, base1, tmp, 0, len1);
+
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int end2 = base2 + len2;
+            int dest = base1;
+            int wins1 = 0;
+            int wins2 = 0;
+
+            while (cursor1 < len1 && cursor2 < end2) {
+                if (Utils.isLess(arr[cursor2], tmp[cursor1])) {
+                    arr[dest++] = arr[cursor2++];
+                    wins1 = 0;
+                    if (++wins2 >= minGallop && cursor2 < end2) {
+                        int count = gallopLeft(tmp[cursor1], arr, cursor2, end2 - cursor2, 0);
+                        System.arraycopy(arr, cursor2, arr, dest, count);
+                        dest += count;
+                        cursor2 += count;
+                        wins2 = 0;
+                        adjustGallop(count);
+                    }
+                } else {
+                    arr[dest++] = tmp[cursor1++];
+                    wins2 = 0;
+                    if (++wins1 >= minGallop && cursor1 < len1) {
+                        int count = gallopRight(arr[cursor2], tmp, cursor1, len1 - cursor1, 0);
+                        System.arraycopy(tmp, cursor1, arr, dest, count);
+                        dest += count;
+                        cursor1 += count;
+                        wins1 = 0;
+                        adjustGallop(count);
+                    }
+                }
+            }
+
+            // whatever is left of the second run is already in place
+            System.arraycopy(tmp, cursor1, arr, dest, len1 - cursor1);
+        }
+
+        // Merges right to left, with the second run copied into tmp
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            ensureCapacity(len2);
+            System.arraycopy(arr, base2, tmp, 0, len2);
+
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            int wins1 = 0;
+            int wins2 = 0;
+
+            while (cursor1 >= base1 && cursor2 >= 0) {
+                if (Utils.isLess(tmp[cursor2], arr[cursor1])) {
+                    arr[dest--] = arr[cursor1--];
+                    wins2 = 0;
+                    if (++wins1 >= minGallop && cursor1 >= base1) {
+                        int remaining = cursor1 - base1 + 1;
+                        int count = remaining - gallopRight(tmp[cursor2], arr, base1, remaining, remaining - 1);
+                        System.arraycopy(arr, cursor1 - count + 1, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor1 -= count;
+                        wins1 = 0;
+                        adjustGallop(count);
+                    }
+                } else {
+                    arr[dest--] = tmp[cursor2--];
+                    wins1 = 0;
+                    if (++wins2 >= minGallop && cursor2 >= 0) {
+                        int remaining = cursor2 + 1;
+                        int count = remaining - gallopLeft(arr[cursor1], tmp, 0, remaining, remaining - 1);
+                        System.arraycopy(tmp, cursor2 - count + 1, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor2 -= count;
+                        wins2 = 0;
+                        adjustGallop(count);
+                    }
+                }
+            }
+
+            // whatever is left of the first run is already in place
+            System.arraycopy(tmp, 0, arr, dest - cursor2, cursor2 + 1);
+        }
+
+        private void adjustGallop(int count) {
+            if (count >= MIN_GALLOP) {
+                if (minGallop > 1) minGallop--;
+            } else {
+                minGallop++;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (tmp.length < capacity) {
+                tmp = new int[Math.max(capacity, Math.min(arr.length >>> 1, tmp.length * 2))];
+                Utils.countAllocation(tmp.length);
+            }
+        }
+    }
+
+    // Returns the length of the run starting at start, reversing it if it is strictly descending.
+    // Only strictly descending runs are reversed, so equal elements never swap places
+    private static <T> int countRunAndMakeAscending(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        int runEnd = start + 1;
+        if (runEnd == end) return 1;
+
+        if (Utils.isLess(arr[runEnd++], arr[start], comparator)) {
+            while (runEnd < end && Utils.isLess(arr[runEnd], arr[runEnd - 1], comparator)) runEnd++;
+            reverse(arr, start, runEnd);
+        } else {
+            while (runEnd < end && !Utils.isLess(arr[runEnd], arr[runEnd - 1], comparator)) runEnd++;
+        }
+
+        return runEnd - start;
+    }
+
+    private static <T> void reverse(T[] arr, int start, int end) {
+        for (int i = start, j = end - 1; i < j; i++, j--) {
+            Utils.swap(arr, i, j);
+        }
+    }
+
+    // Insertion sort of arr[start, end), where arr[start, sorted) is already in order. Insertion
+    // points are found with a binary search, and the position after any equal elements is used
+    // to keep the sort stable
+    private static <T> void binarySort(T[] arr, int start, int end, int sorted, Comparator<? super T> comparator) {
+        for (var i = sorted; i < end; i++) {
+            T pivot = arr[i];
+            int left = start;
+            int right = i;
+
+            while (left < right) {
+                int middle = (left + right) >>> 1;
+                if (Utils.isLess(pivot, arr[middle], comparator)) {
+                    right = middle;
+                } else {
+                    left = middle + 1;
+                }
+            }
+
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = pivot;
+        }
+    }
+
+    // Returns how many elements of arr[base, base + length) are less than key, searching
+    // outwards from base + hint in steps of 1, 3, 7, 15... before finishing with a binary
+    // search, so it costs O(log k) comparisons when the answer is k positions from the hint
+    private static <T> int gallopLeft(T key, T[] arr, int base, int length, int hint, Comparator<? super T> comparator) {
+        int lastOffset = 0;
+        int offset = 1;
+
+        if (Utils.isLess(arr[base + hint], key, comparator)) {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && Utils.isLess(arr[base + hint + offset], key, comparator)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && !Utils.isLess(arr[base + hint - offset], key, comparator)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            int swap = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - swap;
+        }
+
+        // arr[base + lastOffset] < key <= arr[base + offset]
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (Utils.isLess(arr[base + middle], key, comparator)) {
+                lastOffset = middle + 1;
+            } else {
+                offset = middle;
+            }
+        }
+        return offset;
+    }
+
+    // Same as gallopLeft, but returns how many elements are less than or equal to key
+    private static <T> int gallopRight(T key, T[] arr, int base, int length, int hint, Comparator<? super T> comparator) {
+        int lastOffset = 0;
+        int offset = 1;
+
+        if (Utils.isLess(key, arr[base + hint], comparator)) {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && Utils.isLess(key, arr[base + hint - offset], comparator)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            int swap = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - swap;
+        } else {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && !Utils.isLess(key, arr[base + hint + offset], comparator)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        // arr[base + lastOffset] <= key < arr[base + offset]
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (Utils.isLess(key, arr[base + middle], comparator)) {
+                offset = middle;
+            } else {
+                lastOffset = middle + 1;
+            }
+        }
+        return offset;
+    }
+
+    private static int countRunAndMakeAscending(int[] arr, int start, int end) {
+        int runEnd = start + 1;
+        if (runEnd == end) return 1;
+
+        if (Utils.isLess(arr[runEnd++], arr[start])) {
+            while (runEnd < end && Utils.isLess(arr[runEnd], arr[runEnd - 1])) runEnd++;
+            reverse(arr, start, runEnd);
+        } else {
+            while (runEnd < end && !Utils.isLess(arr[runEnd], arr[runEnd - 1])) runEnd++;
+        }
+
+        return runEnd - start;
+    }
+
+    private static void reverse(int[] arr, int start, int end) {
+        for (int i = start, j = end - 1; i < j; i++, j--) {
+            Utils.swap(arr, i, j);
+        }
+    }
+
+    private static void binarySort(int[] arr, int start, int end, int sorted) {
+        for (var i = sorted; i < end; i++) {
+            int pivot = arr[i];
+            int left = start;
+            int right = i;
+
+            while (left < right) {
+                int middle = (left + right) >>> 1;
+                if (Utils.isLess(pivot, arr[middle])) {
+                    right = middle;
+                } else {
+                    left = middle + 1;
+                }
+            }
+
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = pivot;
+        }
+    }
+
+    private static int gallopLeft(int key, int[] arr, int base, int length, int hint) {
+        int lastOffset = 0;
+        int offset = 1;
+
+        if (Utils.isLess(arr[base + hint], key)) {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && Utils.isLess(arr[base + hint + offset], key)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && !Utils.isLess(arr[base + hint - offset], key)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            int swap = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - swap;
+        }
+
+        // arr[base + lastOffset] < key <= arr[base + offset]
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (Utils.isLess(arr[base + middle], key)) {
+                lastOffset = middle + 1;
+            } else {
+                offset = middle;
+            }
+        }
+        return offset;
+    }
+
+    private static int gallopRight(int key, int[] arr, int base, int length, int hint) {
+        int lastOffset = 0;
+        int offset = 1;
+
+        if (Utils.isLess(key, arr[base + hint])) {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && Utils.isLess(key, arr[base + hint - offset])) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            int swap = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - swap;
+        } else {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && !Utils.isLess(key, arr[base + hint + offset])) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        // arr[base + lastOffset] <= key < arr[base + offset]
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (Utils.isLess(key, arr[base + middle])) {
+                offset = middle;
+            } else {
+                lastOffset = middle + 1;
+            }
+        }
+        return offset;
+    }
+}
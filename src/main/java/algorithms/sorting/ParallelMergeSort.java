@@ -0,0 +1,379 @@
+package algorithms.sorting;
+
+import utils.OpCounter;
+import utils.Utils;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Merge sort on a ForkJoinPool. QuickSort.parallelSort only forks the partitions, and it is not
+ * stable. This one is, like every merge sort here:
+ *  - the array is split in halves recursively, and both halves are sorted in parallel, until
+ *  they get smaller than the cutoff, then each leaf is sorted sequentially with
+ *  MergeSort's ping-pong recursion
+ *  - the two sorted halves are merged in parallel as well, otherwise the last merge alone
+ *  would take N steps on a single thread, however many threads sort the leaves. The middle
+ *  element of the larger run is written straight to its final place, which is found with a
+ *  binary search in the other run, and the elements on each side of it are two independent
+ *  smaller merges
+ * <p>
+ * Like MergeSort.withBuffer, the whole sort uses a single buffer, allocated once, and each level
+ * merges from one of the array and the buffer into the other, so nothing is ever copied back.
+ * <p>
+ * Stability comes from the binary search: when the pivot comes from the left run, the equal
+ * elements of the right run are sent after it, and when it comes from the right run, the equal
+ * elements of the left run are sent before it.
+ */
+public class ParallelMergeSort {
+    // Runs of this size or less are sorted, and merges of this many elements or less are done,
+    // sequentially
+    public static final int PARALLEL_CUTOFF = 8_192;
+
+    public static void main(String[] args) {
+        var arr = Utils.createMultipleIdenticalArrays(2, 10_000_000, 0, Integer.MAX_VALUE);
+
+        Utils.runWithTime(ParallelMergeSort::sort, arr[0]);
+        System.out.println("Sorted: " + Utils.isSorted(arr[0]));
+
+        System.out.println("\nSequential merge sort with buffer:");
+        Utils.runWithTime(MergeSort::withBuffer, arr[1]);
+        System.out.println("Sorted: " + Utils.isSorted(arr[1]));
+    }
+
+    public static <T extends Comparable<? super T>> void sort(T[] arr) {
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, ForkJoinPool.commonPool(), PARALLEL_CUTOFF, comparator);
+    }
+
+    public static <T extends Comparable<? super T>> void sort(T[] arr, ForkJoinPool pool) {
+        sort(arr, pool, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, ForkJoinPool pool, Comparator<? super T> comparator) {
+        sort(arr, pool, PARALLEL_CUTOFF, comparator);
+    }
+
+    public static <T extends Comparable<? super T>> void sort(T[] arr, ForkJoinPool pool, int cutoff) {
+        sort(arr, pool, cutoff, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, ForkJoinPool pool, int cutoff, Comparator<? super T> comparator) {
+        validateCutoff(cutoff);
+        Utils.countAllocation(arr.length);
+        pool.invoke(new SortTask<>(arr.clone(), arr, 0, arr.length, cutoff, comparator));
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, ForkJoinPool.commonPool(), PARALLEL_CUTOFF);
+    }
+
+    public static void sort(int[] arr, ForkJoinPool pool) {
+        sort(arr, pool, PARALLEL_CUTOFF);
+    }
+
+    public static void sort(int[] arr, ForkJoinPool pool, int cutoff) {
+        validateCutoff(cutoff);
+        Utils.countAllocation(arr.length);
+        pool.invoke(new IntSortTask(arr.clone(), arr, 0, arr.length, cutoff));
+    }
+
+    private static void validateCutoff(int cutoff) {
+        if (cutoff < 1) {
+            throw new IllegalArgumentException("cutoff must be at least 1, but was " + cutoff);
+        }
+    }
+
+    // On entry, src and dst hold the same elements in [start, end), on exit dst holds them sorted
+    @SuppressWarnings("serial")
+    private static class SortTask<T> extends RecursiveAction {
+        private final T[] src;
+        private final T[] dst;
+        private final int start;
+        private final int end;
+        private final int cutoff;
+        private final Comparator<? super T> comparator;
+        // Tasks run on the threads of the pool, so they carry the counter of the thread that created them
+        private final OpCounter counter = Utils.COUNTING ? OpCounter.current() : null;
+
+        SortTask(T[] src, T[] dst, int start, int end, int cutoff, Comparator<? super T> comparator) {
+            this.src = src;
+            this.dst = dst;
+            this.start = start;
+            this.end = end;
+            this.cutoff = cutoff;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (counter == null) sortRange();
+            else OpCounter.runIn(counter, this::sortRange);
+        }
+
+        private void sortRange() {
+            if (end - start <= cutoff) {
+                MergeSort.pingPong(src, dst, start, end, comparator);
+                return;
+            }
+
+            int middle = start + (end - start) / 2;
+            invokeAll(new SortTask<>(dst, src, start, middle, cutoff, comparator),
+                    new SortTask<>(dst, src, middle, end, cutoff, comparator));
+
+            // the halves are already in order, a copy is enough
+            if (!Utils.isLess(src[middle], src[middle - 1], comparator)) {
+                System.arraycopy(src, start, dst, start, end - start);
+                return;
+            }
+            new MergeTask<>(src, dst, start, middle, middle, end, start, cutoff, comparator).compute();
+        }
+    }
+
+    // Merges src[leftStart, leftEnd) and src[rightStart, rightEnd) into dst, starting at index to
+    @SuppressWarnings("serial")
+    private static class MergeTask<T> extends RecursiveAction {
+        private final T[] src;
+        private final T[] dst;
+        private final int leftStart;
+        private final int leftEnd;
+        private final int rightStart;
+        private final int rightEnd;
+        private final int to;
+        private final int cutoff;
+        private final Comparator<? super T> comparator;
+        private final OpCounter counter = Utils.COUNTING ? OpCounter.current() : null;
+
+        MergeTask(T[] src, T[] dst, int leftStart, int leftEnd, int rightStart, int rightEnd, int to, int cutoff, Comparator<? super T> comparator) {
+            this.src = src;
+            this.dst = dst;
+            this.leftStart = leftStart;
+            this.leftEnd = leftEnd;
+            this.rightStart = rightStart;
+            this.rightEnd = rightEnd;
+            this.to = to;
+            this.cutoff = cutoff;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (counter == null) mergeRange();
+            else OpCounter.runIn(counter, this::mergeRange);
+        }
+
+        private void mergeRange() {
+            int leftLength = leftEnd - leftStart;
+            int rightLength = rightEnd - rightStart;
+            if (leftLength + rightLength <= cutoff) {
+                merge();
+                return;
+            }
+
+            // the pivot is written to its final place here, and left out of both halves
+            int leftSplit, rightSplit, leftNext, rightNext, pivot;
+            if (leftLength >= rightLength) {
+                leftSplit = leftStart + leftLength / 2;
+                rightSplit = lowerBound(src, rightStart, rightEnd, src[leftSplit], comparator);
+                pivot = leftSplit;
+                leftNext = leftSplit + 1;
+                rightNext = rightSplit;
+            } else {
+                rightSplit = rightStart + rightLength / 2;
+                leftSplit = upperBound(src, leftStart, leftEnd, src[rightSplit], comparator);
+                pivot = rightSplit;
+                leftNext = leftSplit;
+                rightNext = rightSplit + 1;
+            }
+
+            int pivotTo = to + (leftSplit - leftStart) + (rightSplit - rightStart);
+            dst[pivotTo] = src[pivot];
+            invokeAll(new MergeTask<>(src, dst, leftStart, leftSplit, rightStart, rightSplit, to, cutoff, comparator),
+                    new MergeTask<>(src, dst, leftNext, leftEnd, rightNext, rightEnd, pivotTo + 1, cutoff, comparator));
+        }
+
+        private void merge() {
+            int leftIndex = leftStart;
+            int rightIndex = rightStart;
+            int i = to;
+            while (leftIndex < leftEnd && rightIndex < rightEnd) {
+                if (Utils.isLess(src[rightIndex], src[leftIndex], comparator)) {
+                    dst[i++] = src[rightIndex++];
+                } else {
+                    dst[i++] = src[leftIndex++];
+                }
+            }
+            System.arraycopy(src, leftIndex, dst, i, leftEnd - leftIndex);
+            System.arraycopy(src, rightIndex, dst, i + leftEnd - leftIndex, rightEnd - rightIndex);
+        }
+    }
+
+    // First index in arr[start, end) whose element is not less than key
+    private static <T> int lowerBound(T[] arr, int start, int end, T key, Comparator<? super T> comparator) {
+        while (start < end) {
+            int middle = (start + end) >>> 1;
+            if (Utils.isLess(arr[middle], key, comparator)) {
+                start = middle + 1;
+            } else {
+                end = middle;
+            }
+        }
+        return start;
+    }
+
+    // First index in arr[start, end) whose element is greater than key
+    private static <T> int upperBound(T[] arr, int start, int end, T key, Comparator<? super T> comparator) {
+        while (start < end) {
+            int middle = (start + end) >>> 1;
+            if (Utils.isLess(key, arr[middle], comparator)) {
+                end = middle;
+            } else {
+                start = middle + 1;
+            }
+        }
+        return start;
+    }
+
+    @SuppressWarnings("serial")
+    private static class IntSortTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int start;
+        private final int end;
+        private final int cutoff;
+        private final OpCounter counter = Utils.COUNTING ? OpCounter.current() : null;
+
+        IntSortTask(int[] src, int[] dst, int start, int end, int cutoff) {
+            this.src = src;
+            this.dst = dst;
+            this.start = start;
+            this.end = end;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (counter == null) sortRange();
+            else OpCounter.runIn(counter, this::sortRange);
+        }
+
+        private void sortRange() {
+            if (end - start <= cutoff) {
+                MergeSort.pingPong(src, dst, start, end);
+                return;
+            }
+
+            int middle = start + (end - start) / 2;
+            invokeAll(new IntSortTask(dst, src, start, middle, cutoff),
+                    new IntSortTask(dst, src, middle, end, cutoff));
+
+            if (!Utils.isLess(src[middle], src[middle - 1])) {
+                System.arraycopy(src, start, dst, start, end - start);
+                return;
+            }
+            new IntMergeTask(src, dst, start, middle, middle, end, start, cutoff).compute();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class IntMergeTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int leftStart;
+        private final int leftEnd;
+        private final int rightStart;
+        private final int rightEnd;
+        private final int to;
+        private final int cutoff;
+        private final OpCounter counter = Utils.COUNTING ? OpCounter.current() : null;
+
+        IntMergeTask(int[] src, int[] dst, int leftStart, int leftEnd, int rightStart, int rightEnd, int to, int cutoff) {
+            this.src = src;
+            this.dst = dst;
+            this.leftStart = leftStart;
+            this.leftEnd = leftEnd;
+            this.rightStart = rightStart;
+            this.rightEnd = rightEnd;
+            this.to = to;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (counter == null) mergeRange();
+            else OpCounter.runIn(counter, this::mergeRange);
+        }
+
+        private void mergeRange() {
+            int leftLength = leftEnd - leftStart;
+            int rightLength = rightEnd - rightStart;
+            if (leftLength + rightLength <= cutoff) {
+                merge();
+                return;
+            }
+
+            int leftSplit, rightSplit, leftNext, rightNext, pivot;
+            if (leftLength >= rightLength) {
+                leftSplit = leftStart + leftLength / 2;
+                rightSplit = lowerBound(src, rightStart, rightEnd, src[leftSplit]);
+                pivot = leftSplit;
+                leftNext = leftSplit + 1;
+                rightNext = rightSplit;
+            } else {
+                rightSplit = rightStart + rightLength / 2;
+                leftSplit = upperBound(src, leftStart, leftEnd, src[rightSplit]);
+                pivot = rightSplit;
+                leftNext = leftSplit;
+                rightNext = rightSplit + 1;
+            }
+
+            int pivotTo = to + (leftSplit - leftStart) + (rightSplit - rightStart);
+            dst[pivotTo] = src[pivot];
+            invokeAll(new IntMergeTask(src, dst, leftStart, leftSplit, rightStart, rightSplit, to, cutoff),
+                    new IntMergeTask(src, dst, leftNext, leftEnd, rightNext, rightEnd, pivotTo + 1, cutoff));
+        }
+
+        private void merge() {
+            int leftIndex = leftStart;
+            int rightIndex = rightStart;
+            int i = to;
+            while (leftIndex < leftEnd && rightIndex < rightEnd) {
+                if (Utils.isLess(src[rightIndex], src[leftIndex])) {
+                    dst[i++] = src[rightIndex++];
+                } else {
+                    dst[i++] = src[leftIndex++];
+                }
+            }
+            System.arraycopy(src, leftIndex, dst, i, leftEnd - leftIndex);
+            System.arraycopy(src, rightIndex, dst, i + leftEnd - leftIndex, rightEnd - rightIndex);
+        }
+    }
+
+    private static int lowerBound(int[] arr, int start, int end, int key) {
+        while (start < end) {
+            int middle = (start + end) >>> 1;
+            if (Utils.isLess(arr[middle], key)) {
+                start = middle + 1;
+            } else {
+                end = middle;
+            }
+        }
+        return start;
+    }
+
+    private static int upperBound(int[] arr, int start, int end, int key) {
+        while (start < end) {
+            int middle = (start + end) >>> 1;
+            if (Utils.isLess(key, arr[middle])) {
+                end = middle;
+            } else {
+                start = middle + 1;
+            }
+        }
+        return start;
+    }
+}
@@ -0,0 +1,304 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+/**
+ * Many callers sort a whole array only to read its median, a percentile, or its first few
+ * entries. All of these need much less work than a full N log N sort:
+ *  - select: quickselect, the k-th smallest entry in linear time on average. It partitions like
+ *  QuickSort, but only keeps going into the part that contains index k. Like QuickSort.introSort,
+ *  it falls back to heap sort on the remaining range when partitioning stops making progress, so
+ *  the worst case is N log N instead of N^2
+ *  - partialSort: the k smallest entries, sorted, at the front of the array, in N + k log k.
+ *  The rest of the array is left in no particular order
+ *  - smallest: the k smallest values of a stream or iterator, which may be too large to keep
+ *  in memory. A max-heap holds the k smallest values seen so far, and a new value only goes in,
+ *  replacing the root, when it is less than the largest of them, so the memory is O(k) and the
+ *  time N log k
+ *  - IntTopK and TopK: the same heap, fed one value at a time, for streams that never end.
+ *  snapshot() returns the k smallest values added so far at any point, and adding goes on after it
+ * <p>
+ * After select(arr, k), arr[k] is the entry a full sort would put there, no entry before it is
+ * greater, and no entry after it is less.
+ */
+public class PartialSort {
+    public static void main(String[] args) {
+        var arr = Utils.createRandomIntArray(1_000_000, 0, Integer.MAX_VALUE);
+        var copy = arr.clone();
+
+        Utils.runWithTime(a -> System.out.println("Median: " + select(a, a.length / 2)), arr);
+        Utils.runWithTime(a -> {
+            Arrays.sort(a);
+            System.out.println("Median: " + a[a.length / 2]);
+        }, copy);
+
+        var top = smallest(IntStream.generate(() -> (int) (Math.random() * 1_000_000)).limit(10_000_000), 5);
+        System.out.println("Smallest: " + Arrays.toString(top));
+    }
+
+    // Returns the k-th smallest entry of arr, counting from 0, and moves it to arr[k]
+    public static int select(int[] arr, int k) {
+        validateIndex(k, arr.length);
+
+        int start = 0, end = arr.length;
+        int depthLimit = QuickSort.depthLimit(arr.length);
+
+        while (end - start > QuickSort.INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.sort(arr, start, end);
+                return arr[k];
+            }
+
+            int split = QuickSort.partition(arr, start, end);
+
+            if (k < split) {
+                end = split;
+            } else {
+                start = split;
+            }
+        }
+
+        Insertion.sort(arr, start, end);
+        return arr[k];
+    }
+
+    public static <T extends Comparable<? super T>> T select(T[] arr, int k) {
+        return select(arr, k, Comparator.naturalOrder());
+    }
+
+    public static <T> T select(T[] arr, int k, Comparator<? super T> comparator) {
+        validateIndex(k, arr.length);
+
+        int start = 0, end = arr.length;
+        int depthLimit = QuickSort.depthLimit(arr.length);
+
+        while (end - start > QuickSort.INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.sort(arr, start, end, comparator);
+                return arr[k];
+            }
+
+            int split = QuickSort.partition(arr, start, end, comparator);
+
+            if (k < split) {
+                end = split;
+            } else {
+                start = split;
+            }
+        }
+
+        Insertion.sortShift(arr, start, end, comparator);
+        return arr[k];
+    }
+
+    // Sorts the k smallest entries into arr[0, k), selecting the last of them first leaves the
+    // other k - 1 before it, so only that prefix has to be sorted
+    public static void partialSort(int[] arr, int k) {
+        validateCount(k, arr.length);
+        if (k == 0) return;
+
+        select(arr, k - 1);
+        QuickSort.sort(arr, 0, k - 1);
+    }
+
+    public static <T extends Comparable<? super T>> void partialSort(T[] arr, int k) {
+        partialSort(arr, k, Comparator.naturalOrder());
+    }
+
+    public static <T> void partialSort(T[] arr, int k, Comparator<? super T> comparator) {
+        validateCount(k, arr.length);
+        if (k == 0) return;
+
+        select(arr, k - 1, comparator);
+        QuickSort.sort(arr, 0, k - 1, comparator);
+    }
+
+    // The k smallest values of the stream in ascending order, or all of them if there are fewer
+    // than k. The stream is consumed, and must be finite, use IntTopK for one that does not end
+    public static int[] smallest(IntStream values, int k) {
+        return smallest(values.iterator(), k);
+    }
+
+    public static int[] smallest(PrimitiveIterator.OfInt values, int k) {
+        var top = new IntTopK(k);
+        while (values.hasNext()) {
+            top.add(values.nextInt());
+        }
+        return top.snapshot();
+    }
+
+    public static <T extends Comparable<? super T>> List<T> smallest(Iterator<? extends T> values, int k) {
+        return smallest(values, k, Comparator.naturalOrder());
+    }
+
+    // The k largest are the k smallest of the reversed order, so a reversed comparator gives them
+    // largest first
+    public static <T> List<T> smallest(Iterator<? extends T> values, int k, Comparator<? super T> comparator) {
+        var top = new TopK<T>(k, comparator);
+        while (values.hasNext()) {
+            top.add(values.next());
+        }
+        return top.snapshot();
+    }
+
+    // The k smallest ints added so far. add is O(log k), and snapshot sorts a copy of the heap in
+    // k log k, so it can be called as often as needed while values keep coming
+    public static class IntTopK {
+        private final int k;
+        private int[] heap;
+        private int size;
+
+        public IntTopK(int k) {
+            validateCount(k, Integer.MAX_VALUE);
+            this.k = k;
+            // Grows up to k, so a large k with a short stream does not allocate k slots up front
+            heap = new int[Math.min(k, 1024)];
+        }
+
+        public void add(int value) {
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, 2L * size));
+                }
+                heap[size] = value;
+                swim(heap, size++);
+            } else if (k > 0 && Utils.isLess(value, heap[0])) {
+                heap[0] = value;
+                sink(heap, 0, size);
+            }
+        }
+
+        // Number of values held, k once at least k values were added
+        public int size() {
+            return size;
+        }
+
+        // The values held, in ascending order
+        public int[] snapshot() {
+            var sorted = Arrays.copyOf(heap, size);
+
+            // Heap sort the copy in place, the largest value is at the root
+            for (var n = size - 1; n > 0; n--) {
+                Utils.swap(sorted, 0, n);
+                sink(sorted, 0, n);
+            }
+            return sorted;
+        }
+    }
+
+    public static class TopK<T> {
+        private final int k;
+        private final Comparator<? super T> comparator;
+        private final List<T> heap;
+
+        public TopK(int k, Comparator<? super T> comparator) {
+            validateCount(k, Integer.MAX_VALUE);
+            this.k = k;
+            this.comparator = comparator;
+            heap = new ArrayList<>(Math.min(k, 1024));
+        }
+
+        public void add(T value) {
+            if (heap.size() < k) {
+                heap.add(value);
+                swim(heap, heap.size() - 1, comparator);
+            } else if (k > 0 && Utils.isLess(value, heap.get(0), comparator)) {
+                heap.set(0, value);
+                sink(heap, 0, heap.size(), comparator);
+            }
+        }
+
+        public int size() {
+            return heap.size();
+        }
+
+        // The values held, smallest first in the order of the comparator
+        public List<T> snapshot() {
+            var sorted = new ArrayList<>(heap);
+            for (var n = sorted.size() - 1; n > 0; n--) {
+                sorted.set(0, sorted.set(n, sorted.get(0)));
+                sink(sorted, 0, n, comparator);
+            }
+            return sorted;
+        }
+    }
+
+    // Moves the entry at index k of the max-heap up, until its parent is not less than it
+    private static void swim(int[] heap, int k) {
+        int value = heap[k];
+        int parent;
+
+        while (k > 0 && Utils.isLess(heap[parent = (k - 1) / 2], value)) {
+            heap[k] = heap[parent];
+            k = parent;
+        }
+
+        heap[k] = value;
+    }
+
+    private static void sink(int[] heap, int k, int length) {
+        int value = heap[k];
+        int child;
+
+        while ((child = 2 * k + 1) < length) {
+            if (child + 1 < length && Utils.isLess(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!Utils.isLess(value, heap[child])) break;
+
+            heap[k] = heap[child];
+            k = child;
+        }
+
+        heap[k] = value;
+    }
+
+    private static <T> void swim(List<T> heap, int k, Comparator<? super T> comparator) {
+        T value = heap.get(k);
+        int parent;
+
+        while (k > 0 && Utils.isLess(heap.get(parent = (k - 1) / 2), value, comparator)) {
+            heap.set(k, heap.get(parent));
+            k = parent;
+        }
+
+        heap.set(k, value);
+    }
+
+    private static <T> void sink(List<T> heap, int k, int length, Comparator<? super T> comparator) {
+        T value = heap.get(k);
+        int child;
+
+        while ((child = 2 * k + 1) < length) {
+            if (child + 1 < length && Utils.isLess(heap.get(child), heap.get(child + 1), comparator)) {
+                child++;
+            }
+            if (!Utils.isLess(value, heap.get(child), comparator)) break;
+
+            heap.set(k, heap.get(child));
+            k = child;
+        }
+
+        heap.set(k, value);
+    }
+
+    private static void validateIndex(int k, int length) {
+        if (k < 0 || k >= length) {
+            throw new IllegalArgumentException("index " + k + " is not between 0 and " + (length - 1));
+        }
+    }
+
+    private static void validateCount(int k, int length) {
+        if (k < 0 || k > length) {
+            throw new IllegalArgumentException("count " + k + " is not between 0 and " + length);
+        }
+    }
+}
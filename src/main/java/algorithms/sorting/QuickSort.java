@@ -1,12 +1,12 @@
 package algorithms.sorting;
 
+import utils.OpCounter;
 import utils.Utils;
 
 import java.util.Arrays;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Very popular algorithm, given it is easy to implement and very fast - probably used more
@@ -23,34 +23,81 @@ import java.util.concurrent.Future;
  *      - No entry in arr[mid + 1] through arr[end] is less than arr[pivot]
  */
 public class QuickSort {
+    // Sub-arrays of this size or less are sorted with insertion sort
+    static final int INSERTION_CUTOFF = 15;
+
+    // Sub-arrays larger than this use the ninther instead of the median of 3 as the pivot
+    private static final int NINTHER_THRESHOLD = 40;
+
     public static void main(String[] args) {
         var minBound = 0;
         var maxBound = Integer.MAX_VALUE;
-        var arr = Utils.createMultipleIdenticalArrays(3, 10_000_000, minBound, maxBound);
+        var arr = Utils.createMultipleIdenticalArrays(5, 10_000_000, minBound, maxBound);
 
         Utils.runWithTime(QuickSort::sort, arr[0]);
         System.out.println("Sorted: " + Utils.isSorted(arr[0]));
 
-        System.out.println("\nParallel sort:");
-        Utils.runWithTime(QuickSort::parallelSort, arr[1]);
+        System.out.println("\n3-way sort:");
+        Utils.runWithTime(QuickSort::sort3Way, arr[1]);
         System.out.println("Sorted: " + Utils.isSorted(arr[1]));
 
-        System.out.println("\nNative Arrays Parallel sort:");
-        Utils.runWithTime(Arrays::parallelSort, arr[2]);
+        System.out.println("\nDual pivot sort:");
+        Utils.runWithTime(QuickSort::sortDualPivot, arr[2]);
         System.out.println("Sorted: " + Utils.isSorted(arr[2]));
+
+        System.out.println("\nParallel sort:");
+        Utils.runWithTime(QuickSort::parallelSort, arr[3]);
+        System.out.println("Sorted: " + Utils.isSorted(arr[3]));
+
+        System.out.println("\nNative Arrays Parallel sort:");
+        Utils.runWithTime(Arrays::parallelSort, arr[4]);
+        System.out.println("Sorted: " + Utils.isSorted(arr[4]));
     }
 
     public static <T extends Comparable<? super T>> void sort(T[] arr) {
-        sort(arr, 0, arr.length);
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, comparator);
     }
 
+    // Recursing into both parts makes the depth of the recursion as large as the number of
+    // partitions in the worst case. Instead, we only recurse into the smaller part, and loop
+    // to partition the larger one, so the depth is at most log2 N whatever the pivots are
     public static <T extends Comparable<? super T>> void sort(T[] arr, int start, int end) {
-        if (end - start <= 1) return;
+        sort(arr, start, end, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        // quick sort tends to be slower than other sorting solutions for small
+        // small arrays, so it calls insertion sort for arrays of 15 elements or
+        // less, which tends to improve performance
+        while (end - start > INSERTION_CUTOFF) {
+            int split = partition(arr, start, end, comparator);
+
+            Utils.enterRecursion();
+            if (split - start < end - split) {
+                sort(arr, start, split, comparator);
+                start = split;
+            } else {
+                sort(arr, split, end, comparator);
+                end = split;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sortShift(arr, start, end, comparator);
+    }
+
+    // Partitions arr[start, end) around a pivot and returns the split index: no entry in
+    // arr[start, split) is greater than the pivot, and no entry in arr[split, end) is less
+    // than it. Both parts are always smaller than the whole range
+    static <T> int partition(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        // move the chosen pivot to the first index, so the loop below can use it from there
+        Utils.swap(arr, start, pivotIndex(arr, start, end, comparator));
 
         // start two pointers at the first and last index
-        // select a pivot, in this case will be the first element
-        // Note: I was previously using the mid element, but it
-        // doesn't make a difference
         int left = start, right = end - 1;
         T pivot = arr[start];
 
@@ -58,6 +105,274 @@ public class QuickSort {
         // compare each element with the pivot, and then:
         //  - save the left index when the value is higher than the pivot
         //  - save the right index when the value is lower than the pivot
+        while (left <= right) {
+            while (Utils.isLess(arr[left], pivot, comparator)) left++;
+            while (Utils.isLess(pivot, arr[right], comparator)) right--;
+
+            if (left <= right) {
+                Utils.swap(arr, left++, right--);
+            }
+        }
+
+        return left;
+    }
+
+    // The pivot used to be the first element, which is the smallest one on sorted input, so
+    // every partition removed a single element, making the sort quadratic and the recursion
+    // N levels deep. The median of the first, middle and last elements avoids that, and for
+    // larger arrays, the median of three such medians (Tukey's ninther) gets even closer to
+    // the real median, for 12 comparisons at most
+    private static <T> int pivotIndex(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        int length = end - start;
+        int middle = start + length / 2;
+        int last = end - 1;
+
+        if (length > NINTHER_THRESHOLD) {
+            int step = length / 8;
+            int first = medianOf3(arr, start, start + step, start + 2 * step, comparator);
+            middle = medianOf3(arr, middle - step, middle, middle + step, comparator);
+            last = medianOf3(arr, last - 2 * step, last - step, last, comparator);
+            return medianOf3(arr, first, middle, last, comparator);
+        }
+
+        return medianOf3(arr, start, middle, last, comparator);
+    }
+
+    private static <T> int medianOf3(T[] arr, int i, int j, int k, Comparator<? super T> comparator) {
+        return Utils.isLess(arr[i], arr[j], comparator)
+                ? (Utils.isLess(arr[j], arr[k], comparator) ? j : Utils.isLess(arr[i], arr[k], comparator) ? k : i)
+                : (Utils.isLess(arr[k], arr[j], comparator) ? j : Utils.isLess(arr[k], arr[i], comparator) ? k : i);
+    }
+
+    // Introspective sort: the same partitioning as sort(), but it keeps track of how deep the
+    // partitioning has gone. Good pivots split the range in halves, so about log2 N levels are
+    // enough to get down to the insertion sort cutoff. When a range is still being partitioned
+    // after 2 * log2 N levels, the pivots are clearly not working for this input, and the range
+    // is sorted with heap sort instead, which is N log N whatever the input looks like. This
+    // bounds both the running time and the stack depth, even for inputs built to defeat the
+    // ninther
+    public static <T extends Comparable<? super T>> void introSort(T[] arr) {
+        introSort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void introSort(T[] arr, Comparator<? super T> comparator) {
+        introSort(arr, 0, arr.length, depthLimit(arr.length), comparator);
+    }
+
+    private static <T> void introSort(T[] arr, int start, int end, int depthLimit, Comparator<? super T> comparator) {
+        while (end - start > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.sort(arr, start, end, comparator);
+                return;
+            }
+
+            int split = partition(arr, start, end, comparator);
+
+            Utils.enterRecursion();
+            if (split - start < end - split) {
+                introSort(arr, start, split, depthLimit, comparator);
+                start = split;
+            } else {
+                introSort(arr, split, end, depthLimit, comparator);
+                end = split;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sortShift(arr, start, end, comparator);
+    }
+
+    static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    public static void introSort(int[] arr) {
+        introSort(arr, 0, arr.length, depthLimit(arr.length));
+    }
+
+    private static void introSort(int[] arr, int start, int end, int depthLimit) {
+        while (end - start > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.sort(arr, start, end);
+                return;
+            }
+
+            int split = partition(arr, start, end);
+
+            Utils.enterRecursion();
+            if (split - start < end - split) {
+                introSort(arr, start, split, depthLimit);
+                start = split;
+            } else {
+                introSort(arr, split, end, depthLimit);
+                end = split;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sort(arr, start, end);
+    }
+
+    // Dijkstra's 3-way partitioning, splits the range in three parts: less than, equal to and
+    // greater than the pivot. Entries equal to the pivot are in their final place after a single
+    // partition, so when there are only a few distinct keys, most of the array drops out of the
+    // recursion straight away, and an array with k distinct keys is sorted in about N log k
+    // comparisons. While partitioning:
+    //  - arr[start, lt) is less than the pivot
+    //  - arr[lt, i) is equal to the pivot
+    //  - arr[i, gt] has not been looked at yet
+    //  - arr(gt, end) is greater than the pivot
+    public static <T extends Comparable<? super T>> void sort3Way(T[] arr) {
+        sort3Way(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort3Way(T[] arr, Comparator<? super T> comparator) {
+        sort3Way(arr, 0, arr.length, comparator);
+    }
+
+    public static <T extends Comparable<? super T>> void sort3Way(T[] arr, int start, int end) {
+        sort3Way(arr, start, end, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort3Way(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        while (end - start > INSERTION_CUTOFF) {
+            Utils.swap(arr, start, pivotIndex(arr, start, end, comparator));
+            T pivot = arr[start];
+            int lt = start, i = start + 1, gt = end - 1;
+
+            while (i <= gt) {
+                int cmp = Utils.compare(arr[i], pivot, comparator);
+                if (cmp < 0) {
+                    Utils.swap(arr, lt++, i++);
+                } else if (cmp > 0) {
+                    Utils.swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            Utils.enterRecursion();
+            if (lt - start < end - gt - 1) {
+                sort3Way(arr, start, lt, comparator);
+                start = gt + 1;
+            } else {
+                sort3Way(arr, gt + 1, end, comparator);
+                end = lt;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sortShift(arr, start, end, comparator);
+    }
+
+    // Yaroslavskiy's dual pivot partitioning, which is what Arrays.sort uses for primitives.
+    // Two pivots p <= q split the range in three parts: less than p, between p and q and greater
+    // than q. It does about the same number of comparisons as a single pivot, but fewer swaps,
+    // and scans the array fewer times, which makes better use of the cache. The pivots are taken
+    // at one and two thirds of the range, so sorted input is split in three even parts.
+    // While partitioning:
+    //  - arr(start, lt) is less than p
+    //  - arr[lt, i) is between p and q
+    //  - arr[i, gt] has not been looked at yet
+    //  - arr(gt, last) is greater than q
+    public static <T extends Comparable<? super T>> void sortDualPivot(T[] arr) {
+        sortDualPivot(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sortDualPivot(T[] arr, Comparator<? super T> comparator) {
+        sortDualPivot(arr, 0, arr.length, comparator);
+    }
+
+    public static <T extends Comparable<? super T>> void sortDualPivot(T[] arr, int start, int end) {
+        sortDualPivot(arr, start, end, Comparator.naturalOrder());
+    }
+
+    public static <T> void sortDualPivot(T[] arr, int start, int end, Comparator<? super T> comparator) {
+        while (end - start > INSERTION_CUTOFF) {
+            int last = end - 1;
+            int third = (end - start) / 3;
+            Utils.swap(arr, start, start + third);
+            Utils.swap(arr, last, last - third);
+            if (Utils.isLess(arr[last], arr[start], comparator)) {
+                Utils.swap(arr, start, last);
+            }
+
+            T p = arr[start];
+            T q = arr[last];
+            int lt = start + 1, i = start + 1, gt = last - 1;
+
+            while (i <= gt) {
+                if (Utils.isLess(arr[i], p, comparator)) {
+                    Utils.swap(arr, lt++, i++);
+                } else if (Utils.isLess(q, arr[i], comparator)) {
+                    Utils.swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // move the pivots to their final places
+            Utils.swap(arr, start, --lt);
+            Utils.swap(arr, last, ++gt);
+
+            // when both pivots are equal, every entry in the middle part is equal to them
+            boolean middleSorted = !Utils.isLess(p, q, comparator);
+            int lower = lt - start;
+            int middle = middleSorted ? 0 : gt - lt - 1;
+            int upper = end - gt - 1;
+
+            // recurse into the two smaller parts, and loop on the largest one
+            Utils.enterRecursion();
+            if (lower >= middle && lower >= upper) {
+                if (!middleSorted) sortDualPivot(arr, lt + 1, gt, comparator);
+                sortDualPivot(arr, gt + 1, end, comparator);
+                end = lt;
+            } else if (upper >= middle) {
+                sortDualPivot(arr, start, lt, comparator);
+                if (!middleSorted) sortDualPivot(arr, lt + 1, gt, comparator);
+                start = gt + 1;
+            } else {
+                sortDualPivot(arr, start, lt, comparator);
+                sortDualPivot(arr, gt + 1, end, comparator);
+                start = lt + 1;
+                end = gt;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sortShift(arr, start, end, comparator);
+    }
+
+    // Primitive versions of the partitioning above, comparing with Utils.isLess on the primitives,
+    // so no keys are boxed. For double[], arrays containing NaN are not supported
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public static void sort(int[] arr, int start, int end) {
+        while (end - start > INSERTION_CUTOFF) {
+            int split = partition(arr, start, end);
+
+            Utils.enterRecursion();
+            if (split - start < end - split) {
+                sort(arr, start, split);
+                start = split;
+            } else {
+                sort(arr, split, end);
+                end = split;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sort(arr, start, end);
+    }
+
+    static int partition(int[] arr, int start, int end) {
+        Utils.swap(arr, start, pivotIndex(arr, start, end));
+
+        int left = start, right = end - 1;
+        int pivot = arr[start];
+
         while (left <= right) {
             while (Utils.isLess(arr[left], pivot)) left++;
             while (Utils.isLess(pivot, arr[right])) right--;
@@ -67,44 +382,377 @@ public class QuickSort {
             }
         }
 
-        // quick sort tends to be slower than other sorting solutions for small
-        // small arrays, so adjusting it to call a different sort algorithm like
-        // insertion or selection sort, for arrays of 15 elements or less, tends
-        // to improve performance
-        sort(arr, start, right + 1);
-        sort(arr, left, end);
+        return left;
+    }
+
+    private static int pivotIndex(int[] arr, int start, int end) {
+        int length = end - start;
+        int middle = start + length / 2;
+        int last = end - 1;
+
+        if (length > NINTHER_THRESHOLD) {
+            int step = length / 8;
+            int first = medianOf3(arr, start, start + step, start + 2 * step);
+            middle = medianOf3(arr, middle - step, middle, middle + step);
+            last = medianOf3(arr, last - 2 * step, last - step, last);
+            return medianOf3(arr, first, middle, last);
+        }
+
+        return medianOf3(arr, start, middle, last);
+    }
+
+    private static int medianOf3(int[] arr, int i, int j, int k) {
+        return Utils.isLess(arr[i], arr[j])
+                ? (Utils.isLess(arr[j], arr[k]) ? j : Utils.isLess(arr[i], arr[k]) ? k : i)
+                : (Utils.isLess(arr[k], arr[j]) ? j : Utils.isLess(arr[k], arr[i]) ? k : i);
+    }
+
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public static void sort(long[] arr, int start, int end) {
+        while (end - start > INSERTION_CUTOFF) {
+            int split = partition(arr, start, end);
+
+            Utils.enterRecursion();
+            if (split - start < end - split) {
+                sort(arr, start, split);
+                start = split;
+            } else {
+                sort(arr, split, end);
+                end = split;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sort(arr, start, end);
+    }
+
+    private static int partition(long[] arr, int start, int end) {
+        Utils.swap(arr, start, pivotIndex(arr, start, end));
+
+        int left = start, right = end - 1;
+        long pivot = arr[start];
+
+        while (left <= right) {
+            while (Utils.isLess(arr[left], pivot)) left++;
+            while (Utils.isLess(pivot, arr[right])) right--;
+
+            if (left <= right) {
+                Utils.swap(arr, left++, right--);
+            }
+        }
+
+        return left;
+    }
+
+    private static int pivotIndex(long[] arr, int start, int end) {
+        int length = end - start;
+        int middle = start + length / 2;
+        int last = end - 1;
+
+        if (length > NINTHER_THRESHOLD) {
+            int step = length / 8;
+            int first = medianOf3(arr, start, start + step, start + 2 * step);
+            middle = medianOf3(arr, middle - step, middle, middle + step);
+            last = medianOf3(arr, last - 2 * step, last - step, last);
+            return medianOf3(arr, first, middle, last);
+        }
+
+        return medianOf3(arr, start, middle, last);
+    }
+
+    private static int medianOf3(long[] arr, int i, int j, int k) {
+        return Utils.isLess(arr[i], arr[j])
+                ? (Utils.isLess(arr[j], arr[k]) ? j : Utils.isLess(arr[i], arr[k]) ? k : i)
+                : (Utils.isLess(arr[k], arr[j]) ? j : Utils.isLess(arr[k], arr[i]) ? k : i);
+    }
+
+    public static void sort(double[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public static void sort(double[] arr, int start, int end) {
+        while (end - start > INSERTION_CUTOFF) {
+            int split = partition(arr, start, end);
+
+            Utils.enterRecursion();
+            if (split - start < end - split) {
+                sort(arr, start, split);
+                start = split;
+            } else {
+                sort(arr, split, end);
+                end = split;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sort(arr, start, end);
     }
 
+    private static int partition(double[] arr, int start, int end) {
+        Utils.swap(arr, start, pivotIndex(arr, start, end));
+
+        int left = start, right = end - 1;
+        double pivot = arr[start];
+
+        while (left <= right) {
+            while (Utils.isLess(arr[left], pivot)) left++;
+            while (Utils.isLess(pivot, arr[right])) right--;
+
+            if (left <= right) {
+                Utils.swap(arr, left++, right--);
+            }
+        }
+
+        return left;
+    }
+
+    private static int pivotIndex(double[] arr, int start, int end) {
+        int length = end - start;
+        int middle = start + length / 2;
+        int last = end - 1;
+
+        if (length > NINTHER_THRESHOLD) {
+            int step = length / 8;
+            int first = medianOf3(arr, start, start + step, start + 2 * step);
+            middle = medianOf3(arr, middle - step, middle, middle + step);
+            last = medianOf3(arr, last - 2 * step, last - step, last);
+            return medianOf3(arr, first, middle, last);
+        }
+
+        return medianOf3(arr, start, middle, last);
+    }
+
+    private static int medianOf3(double[] arr, int i, int j, int k) {
+        return Utils.isLess(arr[i], arr[j])
+                ? (Utils.isLess(arr[j], arr[k]) ? j : Utils.isLess(arr[i], arr[k]) ? k : i)
+                : (Utils.isLess(arr[k], arr[j]) ? j : Utils.isLess(arr[k], arr[i]) ? k : i);
+    }
+
+    public static void sort3Way(int[] arr) {
+        sort3Way(arr, 0, arr.length);
+    }
+
+    public static void sort3Way(int[] arr, int start, int end) {
+        while (end - start > INSERTION_CUTOFF) {
+            Utils.swap(arr, start, pivotIndex(arr, start, end));
+            int pivot = arr[start];
+            int lt = start, i = start + 1, gt = end - 1;
+
+            while (i <= gt) {
+                if (Utils.isLess(arr[i], pivot)) {
+                    Utils.swap(arr, lt++, i++);
+                } else if (Utils.isLess(pivot, arr[i])) {
+                    Utils.swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            Utils.enterRecursion();
+            if (lt - start < end - gt - 1) {
+                sort3Way(arr, start, lt);
+                start = gt + 1;
+            } else {
+                sort3Way(arr, gt + 1, end);
+                end = lt;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sort(arr, start, end);
+    }
+
+    public static void sortDualPivot(int[] arr) {
+        sortDualPivot(arr, 0, arr.length);
+    }
+
+    public static void sortDualPivot(int[] arr, int start, int end) {
+        while (end - start > INSERTION_CUTOFF) {
+            int last = end - 1;
+            int third = (end - start) / 3;
+            Utils.swap(arr, start, start + third);
+            Utils.swap(arr, last, last - third);
+            if (Utils.isLess(arr[last], arr[start])) {
+                Utils.swap(arr, start, last);
+            }
+
+            int p = arr[start];
+            int q = arr[last];
+            int lt = start + 1, i = start + 1, gt = last - 1;
+
+            while (i <= gt) {
+                if (Utils.isLess(arr[i], p)) {
+                    Utils.swap(arr, lt++, i++);
+                } else if (Utils.isLess(q, arr[i])) {
+                    Utils.swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            Utils.swap(arr, start, --lt);
+            Utils.swap(arr, last, ++gt);
+
+            boolean middleSorted = !Utils.isLess(p, q);
+            int lower = lt - start;
+            int middle = middleSorted ? 0 : gt - lt - 1;
+            int upper = end - gt - 1;
+
+            Utils.enterRecursion();
+            if (lower >= middle && lower >= upper) {
+                if (!middleSorted) sortDualPivot(arr, lt + 1, gt);
+                sortDualPivot(arr, gt + 1, end);
+                end = lt;
+            } else if (upper >= middle) {
+                sortDualPivot(arr, start, lt);
+                if (!middleSorted) sortDualPivot(arr, lt + 1, gt);
+                start = gt + 1;
+            } else {
+                sortDualPivot(arr, start, lt);
+                sortDualPivot(arr, gt + 1, end);
+                start = lt + 1;
+                end = gt;
+            }
+            Utils.exitRecursion();
+        }
+
+        Insertion.sort(arr, start, end);
+    }
+
+    // The parallel version forks a task for each side of a partition, until the sub-arrays
+    // get smaller than the cutoff, then each task sorts its range sequentially. As the two
+    // sides of a partition never overlap, the tasks sort the array in place and there is
+    // nothing to merge at the end. Work stealing spreads the tasks across every thread of the
+    // pool, so the speedup grows with the number of cores rather than stopping at two
+    public static final int PARALLEL_CUTOFF = 8_192;
+
     public static <T extends Comparable<? super T>> void parallelSort(T[] arr) {
-        var start = 0;
-        var end = arr.length;
+        parallelSort(arr, Comparator.naturalOrder());
+    }
 
-        ExecutorService executorService = Executors.newFixedThreadPool(2);
-        try {
-            Future<?> future1 = executorService.submit(() -> sort(arr, start, end / 2));
-            Future<?> future2 = executorService.submit(() -> sort(arr, end / 2, end));
+    public static <T> void parallelSort(T[] arr, Comparator<? super T> comparator) {
+        parallelSort(arr, ForkJoinPool.commonPool(), PARALLEL_CUTOFF, comparator);
+    }
 
-            // Wait for the tasks to complete
-            future1.get();
-            future2.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
-        } finally {
-            executorService.shutdown();
+    public static <T extends Comparable<? super T>> void parallelSort(T[] arr, ForkJoinPool pool) {
+        parallelSort(arr, pool, Comparator.naturalOrder());
+    }
+
+    public static <T> void parallelSort(T[] arr, ForkJoinPool pool, Comparator<? super T> comparator) {
+        parallelSort(arr, pool, PARALLEL_CUTOFF, comparator);
+    }
+
+    public static <T extends Comparable<? super T>> void parallelSort(T[] arr, ForkJoinPool pool, int cutoff) {
+        parallelSort(arr, pool, cutoff, Comparator.naturalOrder());
+    }
+
+    public static <T> void parallelSort(T[] arr, ForkJoinPool pool, int cutoff, Comparator<? super T> comparator) {
+        validateCutoff(cutoff);
+        pool.invoke(new ParallelSortTask<>(arr, 0, arr.length, cutoff, comparator));
+    }
+
+    public static void parallelSort(int[] arr) {
+        parallelSort(arr, ForkJoinPool.commonPool(), PARALLEL_CUTOFF);
+    }
+
+    public static void parallelSort(int[] arr, ForkJoinPool pool) {
+        parallelSort(arr, pool, PARALLEL_CUTOFF);
+    }
+
+    public static void parallelSort(int[] arr, ForkJoinPool pool, int cutoff) {
+        validateCutoff(cutoff);
+        pool.invoke(new IntParallelSortTask(arr, 0, arr.length, cutoff));
+    }
+
+    private static void validateCutoff(int cutoff) {
+        if (cutoff < 1) {
+            throw new IllegalArgumentException("cutoff must be at least 1, but was " + cutoff);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class ParallelSortTask<T> extends RecursiveAction {
+        private final T[] arr;
+        private final int start;
+        private final int end;
+        private final int cutoff;
+        private final Comparator<? super T> comparator;
+        // Tasks run on the threads of the pool, so they carry the counter of the thread that created them
+        private final OpCounter counter = Utils.COUNTING ? OpCounter.current() : null;
+
+        ParallelSortTask(T[] arr, int start, int end, int cutoff, Comparator<? super T> comparator) {
+            this.arr = arr;
+            this.start = start;
+            this.end = end;
+            this.cutoff = cutoff;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (counter == null) sortRange();
+            else OpCounter.runIn(counter, this::sortRange);
+        }
+
+        private void sortRange() {
+            if (end - start <= cutoff) {
+                sort(arr, start, end, comparator);
+                return;
+            }
+
+            int split = partition(arr, start, end, comparator);
+            invokeAll(new ParallelSortTask<>(arr, start, split, cutoff, comparator),
+                    new ParallelSortTask<>(arr, split, end, cutoff, comparator));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class IntParallelSortTask extends RecursiveAction {
+        private final int[] arr;
+        private final int start;
+        private final int end;
+        private final int cutoff;
+        private final OpCounter counter = Utils.COUNTING ? OpCounter.current() : null;
+
+        IntParallelSortTask(int[] arr, int start, int end, int cutoff) {
+            this.arr = arr;
+            this.start = start;
+            this.end = end;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (counter == null) sortRange();
+            else OpCounter.runIn(counter, this::sortRange);
         }
 
-        // Merge the two sorted halves
-        merge(arr, start, end / 2, end);
+        private void sortRange() {
+            if (end - start <= cutoff) {
+                sort(arr, start, end);
+                return;
+            }
+
+            int split = partition(arr, start, end);
+            invokeAll(new IntParallelSortTask(arr, start, split, cutoff),
+                    new IntParallelSortTask(arr, split, end, cutoff));
+        }
     }
 
-    @SuppressWarnings("unchecked")
     public static <T extends Comparable<? super T>> void merge(T[] arr, int start, int mid, int end) {
+        merge(arr, start, mid, end, Comparator.naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> void merge(T[] arr, int start, int mid, int end, Comparator<? super T> comparator) {
         int lenghtL = mid - start;
         int lenghtR = end - mid;
 
-        T[] left = (T[]) new Comparable[lenghtL];
-        T[] right = (T[]) new Comparable[lenghtR];
+        T[] left = (T[]) new Object[lenghtL];
+        T[] right = (T[]) new Object[lenghtR];
 
         // Copy data to temporary arrays
         System.arraycopy(arr, start, left, 0, lenghtL);
@@ -113,7 +761,7 @@ public class QuickSort {
         // Merge the temporary arrays back into the original array arr
         int i = 0, j = 0, k = start;
         while (i < lenghtL && j < lenghtR) {
-            if (Utils.isLess(left[i], right[j])) {
+            if (Utils.isLess(left[i], right[j], comparator)) {
                 arr[k++] = left[i++];
             } else {
                 arr[k++] = right[j++];
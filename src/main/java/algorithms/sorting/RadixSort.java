@@ -0,0 +1,194 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Radix sort does not compare keys at all, it sorts them one digit at a time, using each digit
+ * as an index into an array of counters. Here a digit is a byte, so there are 256 possible
+ * values (the radix) for each one.
+ * <p>
+ * LSD (least significant digit first) is used for int[] and long[]:
+ *  - count how many keys have each value for every byte, in a single pass over the array
+ *  - for each byte, from the lowest to the highest, turn its counts into starting positions
+ *  and move every key to the position of its byte value in the other array (arr or the buffer)
+ *  - each pass is stable, so the order given by the lower bytes is kept for keys that share the
+ *  current byte, and after the last pass the keys are sorted
+ *  - negative numbers have the sign bit set, so they would end up after the positive ones,
+ *  flipping the sign bit while reading each digit fixes the order without changing the keys
+ *  - a pass where every key has the same byte value would not move anything, so it is skipped,
+ *  which makes small keys in a large type cheaper to sort
+ * <p>
+ * That is 4 passes for int[] and 8 for long[], whatever the size of the array, so it is linear
+ * in the number of keys. The only memory needed is a buffer as large as the array, which the
+ * caller can provide and reuse.
+ * <p>
+ * MSD (most significant digit first) is used for String[], because strings have variable lengths:
+ * sort by the first character into buckets, then sort each bucket by the next character, and
+ * so on. Strings that end are placed before the longer strings that start with them. Buckets
+ * get small quickly, so they are sorted with insertion sort below a cutoff instead.
+ */
+public class RadixSort {
+    public static final String name = "Radix Sort";
+
+    private static final int RADIX = 256;
+    private static final int MASK = RADIX - 1;
+
+    // Buckets of this size or less are sorted with insertion sort by the string sort
+    private static final int STRING_CUTOFF = 15;
+
+    public static void main(String[] args) {
+        var arr = Utils.createRandomIntArray(10_000_000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        var arr1 = Arrays.copyOf(arr, arr.length);
+
+        Utils.runWithTime(RadixSort::sort, arr);
+        System.out.println("Sorted: " + Utils.isSorted(arr));
+
+        System.out.println("\nQuick sort:");
+        Utils.runWithTime(QuickSort::sort, arr1);
+        System.out.println("Sorted: " + Utils.isSorted(arr1));
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, new int[arr.length]);
+    }
+
+    public static void sort(int[] arr, int[] buffer) {
+        validateBuffer(arr.length, buffer.length);
+        var length = arr.length;
+        if (length < 2) return;
+
+        // counts[b][v + 1] is the number of keys whose byte b has the value v
+        var counts = new int[Integer.BYTES][RADIX + 1];
+        for (var key : arr) {
+            int flipped = key ^ Integer.MIN_VALUE;
+            for (var b = 0; b < Integer.BYTES; b++) {
+                counts[b][((flipped >>> (8 * b)) & MASK) + 1]++;
+            }
+        }
+
+        int[] src = arr;
+        int[] dst = buffer;
+        for (var b = 0; b < Integer.BYTES; b++) {
+            var count = counts[b];
+            int shift = 8 * b;
+            if (count[(((src[0] ^ Integer.MIN_VALUE) >>> shift) & MASK) + 1] == length) continue;
+
+            for (var r = 0; r < RADIX; r++) {
+                count[r + 1] += count[r];
+            }
+            for (var i = 0; i < length; i++) {
+                dst[count[((src[i] ^ Integer.MIN_VALUE) >>> shift) & MASK]++] = src[i];
+            }
+
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    public static void sort(long[] arr) {
+        sort(arr, new long[arr.length]);
+    }
+
+    public static void sort(long[] arr, long[] buffer) {
+        validateBuffer(arr.length, buffer.length);
+        var length = arr.length;
+        if (length < 2) return;
+
+        var counts = new int[Long.BYTES][RADIX + 1];
+        for (var key : arr) {
+            long flipped = key ^ Long.MIN_VALUE;
+            for (var b = 0; b < Long.BYTES; b++) {
+                counts[b][(int) ((flipped >>> (8 * b)) & MASK) + 1]++;
+            }
+        }
+
+        long[] src = arr;
+        long[] dst = buffer;
+        for (var b = 0; b < Long.BYTES; b++) {
+            var count = counts[b];
+            int shift = 8 * b;
+            if (count[(int) (((src[0] ^ Long.MIN_VALUE) >>> shift) & MASK) + 1] == length) continue;
+
+            for (var r = 0; r < RADIX; r++) {
+                count[r + 1] += count[r];
+            }
+            for (var i = 0; i < length; i++) {
+                dst[count[(int) (((src[i] ^ Long.MIN_VALUE) >>> shift) & MASK)]++] = src[i];
+            }
+
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    public static void sort(String[] arr) {
+        sort(arr, new String[arr.length]);
+    }
+
+    public static void sort(String[] arr, String[] buffer) {
+        validateBuffer(arr.length, buffer.length);
+        sort(arr, buffer, 0, arr.length, 0);
+    }
+
+    // Sorts arr[start, end) by the digits from d onwards, all the strings in the range have
+    // the same first d digits. Java chars are 16 bits, so each char is read as two digits,
+    // high byte first, which gives the same order as String.compareTo
+    private static void sort(String[] arr, String[] buffer, int start, int end, int d) {
+        while (end - start > STRING_CUTOFF) {
+            // count[0] is reserved for the strings that end before digit d
+            var count = new int[RADIX + 2];
+            for (var i = start; i < end; i++) {
+                count[digit(arr[i], d) + 2]++;
+            }
+
+            // every string has the same digit, move on to the next one without moving anything
+            if (count[digit(arr[start], d) + 2] == end - start) {
+                if (digit(arr[start], d) == -1) return;
+                d++;
+                continue;
+            }
+
+            for (var r = 0; r < RADIX + 1; r++) {
+                count[r + 1] += count[r];
+            }
+            for (var i = start; i < end; i++) {
+                buffer[count[digit(arr[i], d) + 1]++] = arr[i];
+            }
+            System.arraycopy(buffer, 0, arr, start, end - start);
+
+            // count[r] is now the end of bucket r - 1, the strings that ended are in place
+            for (var r = 0; r < RADIX; r++) {
+                sort(arr, buffer, start + count[r], start + count[r + 1], d + 1);
+            }
+            return;
+        }
+
+        Insertion.sortShift(arr, start, end);
+    }
+
+    private static int digit(String s, int d) {
+        int index = d >>> 1;
+        if (index >= s.length()) return -1;
+
+        char c = s.charAt(index);
+        return (d & 1) == 0 ? c >>> 8 : c & MASK;
+    }
+
+    private static void validateBuffer(int arrayLength, int bufferLength) {
+        if (bufferLength < arrayLength) {
+            throw new IllegalArgumentException("buffer length " + bufferLength + " is less than the array length " + arrayLength);
+        }
+    }
+}
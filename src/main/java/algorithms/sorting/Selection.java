@@ -3,6 +3,7 @@ package algorithms.sorting;
 import utils.Utils;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * At each iteration, selects the lowest value and exchange it with the current index.
@@ -27,26 +28,28 @@ public class Selection {
         for (var i = 0; i < arr.length; i++) {
             var min = i;
             for (var j = i + 1; j < arr.length; j++) {
-                if (arr[j] < arr[min]) {
+                if (Utils.isLess(arr[j], arr[min])) {
                     min = j;
                 }
             }
 
             // is this if useful for optimisation?
-            if (arr[min] < arr[i]) {
-                var tmp = arr[i];
-                arr[i] = arr[min];
-                arr[min] = tmp;
+            if (Utils.isLess(arr[min], arr[i])) {
+                Utils.swap(arr, i, min);
             }
         }
     }
 
     // generified version
     public static <T extends Comparable<? super T>> void sort(T[] arr) {
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
         for (int i = 0; i < arr.length; i++) {
             int min = i;
             for (int j = i + 1; j < arr.length; j++) {
-                if (Utils.isLess(arr[j], arr[min])) {
+                if (Utils.isLess(arr[j], arr[min], comparator)) {
                     min = j;
                 }
             }
@@ -3,6 +3,7 @@ package algorithms.sorting;
 import utils.Utils;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * Shell sort is a generalisation of insertion sort that allows the exchange of items that are far apart.
@@ -25,6 +26,10 @@ public class ShellSort {
     }
 
     public static <T extends Comparable<? super T>> void sort(T[] arr) {
+        sort(arr, Comparator.naturalOrder());
+    }
+
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
         var length = arr.length;
         var h = 1;
         while (h < length / 3) {
@@ -39,11 +44,79 @@ public class ShellSort {
 
         while (h >= 1) {
             for (var i = h; i < length; i++) {
-                for (var j = i; j >= h && Utils.isLess(arr[j], arr[j-h]); j -= h) {
+                for (var j = i; j >= h && Utils.isLess(arr[j], arr[j-h], comparator); j -= h) {
                     Utils.swap(arr, j, j - h);
                 }
             }
             h = h / 3;
         }
     }
+
+    // Primitive versions, using the shift approach from Insertion.sortShift for each h-sorting
+    // pass instead of swapping. For double[], arrays containing NaN are not supported
+    public static void sort(int[] arr) {
+        var length = arr.length;
+        var h = 1;
+        while (h < length / 3) {
+            h = (3 * h) + 1;
+        }
+
+        while (h >= 1) {
+            for (var i = h; i < length; i++) {
+                int tmp = arr[i];
+                var j = i;
+
+                while (j >= h && Utils.isLess(tmp, arr[j - h])) {
+                    arr[j] = arr[j - h];
+                    j -= h;
+                }
+                arr[j] = tmp;
+            }
+            h = h / 3;
+        }
+    }
+
+    public static void sort(long[] arr) {
+        var length = arr.length;
+        var h = 1;
+        while (h < length / 3) {
+            h = (3 * h) + 1;
+        }
+
+        while (h >= 1) {
+            for (var i = h; i < length; i++) {
+                long tmp = arr[i];
+                var j = i;
+
+                while (j >= h && Utils.isLess(tmp, arr[j - h])) {
+                    arr[j] = arr[j - h];
+                    j -= h;
+                }
+                arr[j] = tmp;
+            }
+            h = h / 3;
+        }
+    }
+
+    public static void sort(double[] arr) {
+        var length = arr.length;
+        var h = 1;
+        while (h < length / 3) {
+            h = (3 * h) + 1;
+        }
+
+        while (h >= 1) {
+            for (var i = h; i < length; i++) {
+                double tmp = arr[i];
+                var j = i;
+
+                while (j >= h && Utils.isLess(tmp, arr[j - h])) {
+                    arr[j] = arr[j - h];
+                    j -= h;
+                }
+                arr[j] = tmp;
+            }
+            h = h / 3;
+        }
+    }
 }
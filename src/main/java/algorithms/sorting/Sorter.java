@@ -0,0 +1,270 @@
+package algorithms.sorting;
+
+import utils.Utils;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A single entry point that picks one of the sorters in this package for each input, instead of
+ * the caller hard-coding one. Before sorting it looks at a few features of the input:
+ *  - size: the length of the array
+ *  - runs: an estimate of the number of ascending or descending runs, from the adjacent pairs
+ *  in 64 evenly spaced blocks of 16, how often the order changes direction
+ *  - duplicateRatio: the share of repeated values in an evenly spaced sample of 1024 entries,
+ *  0 when every sampled value is distinct, close to 1 when there are only a few distinct keys
+ *  - elementType: int, long, or the component type of an object array
+ *  - cores: the parallelism of the pool the parallel sorts run in
+ * <p>
+ * Sampling reads a couple of thousand entries at most, whatever the size of the array. The
+ * first rule that matches picks the algorithm:
+ *  - tiny arrays: insertion sort, nothing beats it below a few dozen entries
+ *  - nearly sorted: NaturalMergeSort, which merges the existing runs, and only needs N - 1
+ *  comparisons when there is a single one
+ *  - large, with more than one core: QuickSort.parallelSort for ints, ParallelMergeSort for objects
+ *  - large primitives: RadixSort, linear whatever the order or the keys
+ *  - few distinct keys: QuickSort.sort3Way, where equal keys drop out after a single partition
+ *  - anything else: QuickSort.introSort
+ * <p>
+ * long[] only has insertion, radix and quick sort implementations, so the other rules are
+ * skipped for it. Every sort returns the {@link Decision} it made, with the features it was based
+ * on, so callers can log it, and decide(...) returns it without sorting. Several of the
+ * algorithms are not stable, so neither is the Sorter: use NaturalMergeSort, MergeSort or KeySort
+ * when equal elements have to keep their order.
+ */
+public class Sorter {
+    public enum Algorithm {
+        INSERTION,
+        NATURAL_MERGE,
+        PARALLEL_QUICK,
+        PARALLEL_MERGE,
+        RADIX,
+        QUICK_3WAY,
+        QUICK
+    }
+
+    public record Features(int size, long runs, double duplicateRatio, Class<?> elementType, int cores) {}
+
+    public record Decision(Algorithm algorithm, String reason, Features features) {}
+
+    // Arrays of this size or less are sorted with insertion sort
+    static final int INSERTION_THRESHOLD = 32;
+
+    // Arrays whose runs are this long on average, or longer, are merged with NaturalMergeSort
+    static final int MIN_AVERAGE_RUN = 32;
+
+    // Arrays of this size or more are sorted in parallel, when there is more than one core
+    static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    // Primitive arrays of this size or more are radix sorted, below it the 4 or 8 passes over
+    // the counts cost more than the comparisons they save
+    static final int RADIX_THRESHOLD = 2_048;
+
+    // Arrays with at least this share of duplicates in the sample are sorted with 3-way quick sort
+    static final double DUPLICATE_THRESHOLD = 0.5;
+
+    private static final int RUN_BLOCKS = 64;
+    private static final int RUN_BLOCK_PAIRS = 16;
+    private static final int DUPLICATE_SAMPLE = 1_024;
+
+    private final ForkJoinPool pool;
+    private final int cores;
+
+    public Sorter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public Sorter(ForkJoinPool pool) {
+        this(pool, pool.getParallelism());
+    }
+
+    private Sorter(ForkJoinPool pool, int cores) {
+        this.pool = pool;
+        this.cores = cores;
+    }
+
+    public static void main(String[] args) {
+        var sorter = new Sorter();
+        var random = Utils.createRandomIntArray(1_000_000, 0, Integer.MAX_VALUE);
+        var fewKeys = Utils.createRandomArray(1_000_000, 0, 10);
+        var sorted = Utils.createRandomArray(1_000_000, 0, Integer.MAX_VALUE);
+        QuickSort.sort(sorted);
+
+        System.out.println(sorter.sort(random));
+        System.out.println(sorter.sort(fewKeys));
+        System.out.println(sorter.sort(sorted));
+    }
+
+    public Decision sort(int[] arr) {
+        var decision = decide(arr);
+        switch (decision.algorithm()) {
+            case INSERTION -> Insertion.sort(arr);
+            case NATURAL_MERGE -> NaturalMergeSort.sort(arr);
+            case PARALLEL_QUICK -> QuickSort.parallelSort(arr, pool);
+            case RADIX -> RadixSort.sort(arr);
+            case QUICK_3WAY -> QuickSort.sort3Way(arr);
+            default -> QuickSort.introSort(arr);
+        }
+        return decision;
+    }
+
+    public Decision sort(long[] arr) {
+        var decision = decide(arr);
+        switch (decision.algorithm()) {
+            case INSERTION -> Insertion.sort(arr);
+            case RADIX -> RadixSort.sort(arr);
+            default -> QuickSort.sort(arr);
+        }
+        return decision;
+    }
+
+    public <T extends Comparable<? super T>> Decision sort(T[] arr) {
+        return sort(arr, Comparator.naturalOrder());
+    }
+
+    public <T> Decision sort(T[] arr, Comparator<? super T> comparator) {
+        var decision = decide(arr, comparator);
+        switch (decision.algorithm()) {
+            case INSERTION -> Insertion.sortShift(arr, comparator);
+            case NATURAL_MERGE -> NaturalMergeSort.sort(arr, comparator);
+            case PARALLEL_MERGE -> ParallelMergeSort.sort(arr, pool, comparator);
+            case QUICK_3WAY -> QuickSort.sort3Way(arr, comparator);
+            default -> QuickSort.introSort(arr, comparator);
+        }
+        return decision;
+    }
+
+    public Decision decide(int[] arr) {
+        var n = arr.length;
+        long descents = 0, ascents = 0, pairs = 0;
+        for (var block = 0; block < runBlocks(n); block++) {
+            for (int i = blockStart(block, n), end = i + blockPairs(n); i < end; i++, pairs++) {
+                if (arr[i + 1] < arr[i]) descents++;
+                else if (arr[i + 1] > arr[i]) ascents++;
+            }
+        }
+
+        var sample = new int[sampleSize(n)];
+        for (var i = 0; i < sample.length; i++) {
+            sample[i] = arr[sampleIndex(i, sample.length, n)];
+        }
+        QuickSort.sort(sample);
+        var duplicates = 0;
+        for (var i = 1; i < sample.length; i++) {
+            if (sample[i] == sample[i - 1]) duplicates++;
+        }
+
+        return choose(features(n, descents, ascents, pairs, duplicates, sample.length, int.class));
+    }
+
+    public Decision decide(long[] arr) {
+        var n = arr.length;
+        long descents = 0, ascents = 0, pairs = 0;
+        for (var block = 0; block < runBlocks(n); block++) {
+            for (int i = blockStart(block, n), end = i + blockPairs(n); i < end; i++, pairs++) {
+                if (arr[i + 1] < arr[i]) descents++;
+                else if (arr[i + 1] > arr[i]) ascents++;
+            }
+        }
+
+        var sample = new long[sampleSize(n)];
+        for (var i = 0; i < sample.length; i++) {
+            sample[i] = arr[sampleIndex(i, sample.length, n)];
+        }
+        QuickSort.sort(sample);
+        var duplicates = 0;
+        for (var i = 1; i < sample.length; i++) {
+            if (sample[i] == sample[i - 1]) duplicates++;
+        }
+
+        return choose(features(n, descents, ascents, pairs, duplicates, sample.length, long.class));
+    }
+
+    public <T extends Comparable<? super T>> Decision decide(T[] arr) {
+        return decide(arr, Comparator.naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Decision decide(T[] arr, Comparator<? super T> comparator) {
+        var n = arr.length;
+        long descents = 0, ascents = 0, pairs = 0;
+        for (var block = 0; block < runBlocks(n); block++) {
+            for (int i = blockStart(block, n), end = i + blockPairs(n); i < end; i++, pairs++) {
+                int order = comparator.compare(arr[i + 1], arr[i]);
+                if (order < 0) descents++;
+                else if (order > 0) ascents++;
+            }
+        }
+
+        T[] sample = (T[]) new Object[sampleSize(n)];
+        for (var i = 0; i < sample.length; i++) {
+            sample[i] = arr[sampleIndex(i, sample.length, n)];
+        }
+        QuickSort.sort(sample, comparator);
+        var duplicates = 0;
+        for (var i = 1; i < sample.length; i++) {
+            if (comparator.compare(sample[i], sample[i - 1]) == 0) duplicates++;
+        }
+
+        return choose(features(n, descents, ascents, pairs, duplicates, sample.length, arr.getClass().getComponentType()));
+    }
+
+    // Small arrays are scanned whole, larger ones in RUN_BLOCKS evenly spaced blocks
+    private static int runBlocks(int n) {
+        return n - 1 <= RUN_BLOCKS * RUN_BLOCK_PAIRS ? 1 : RUN_BLOCKS;
+    }
+
+    private static int blockStart(int block, int n) {
+        if (runBlocks(n) == 1) return 0;
+        return (int) ((long) block * (n - 1 - RUN_BLOCK_PAIRS) / (RUN_BLOCKS - 1));
+    }
+
+    private static int blockPairs(int n) {
+        return runBlocks(n) == 1 ? Math.max(n - 1, 0) : RUN_BLOCK_PAIRS;
+    }
+
+    private static int sampleSize(int n) {
+        return Math.min(n, DUPLICATE_SAMPLE);
+    }
+
+    private static int sampleIndex(int i, int sampleSize, int n) {
+        return (int) ((long) i * n / sampleSize);
+    }
+
+    // A run only ends where the order changes direction against it, so an ascending array has
+    // no descents and a descending one no ascents. The sampled rate is scaled up to the whole array
+    private Features features(int n, long descents, long ascents, long pairs, int duplicates, int sampleSize, Class<?> elementType) {
+        long runs = pairs == 0 ? Math.min(n, 1) : 1 + Math.min(descents, ascents) * (n - 1) / pairs;
+        double duplicateRatio = sampleSize == 0 ? 0 : (double) duplicates / sampleSize;
+        return new Features(n, runs, duplicateRatio, elementType, cores);
+    }
+
+    static Decision choose(Features features) {
+        var n = features.size();
+        var type = features.elementType();
+
+        if (n <= INSERTION_THRESHOLD) {
+            return new Decision(Algorithm.INSERTION, "at most " + INSERTION_THRESHOLD + " elements", features);
+        }
+        if (type == long.class) {
+            return n >= RADIX_THRESHOLD
+                    ? new Decision(Algorithm.RADIX, "at least " + RADIX_THRESHOLD + " primitives", features)
+                    : new Decision(Algorithm.QUICK, "fewer than " + RADIX_THRESHOLD + " primitives", features);
+        }
+        if (features.runs() * MIN_AVERAGE_RUN <= n) {
+            return new Decision(Algorithm.NATURAL_MERGE, "about " + features.runs() + " runs", features);
+        }
+        if (n >= PARALLEL_THRESHOLD && features.cores() > 1) {
+            return type == int.class
+                    ? new Decision(Algorithm.PARALLEL_QUICK, features.cores() + " cores", features)
+                    : new Decision(Algorithm.PARALLEL_MERGE, features.cores() + " cores", features);
+        }
+        if (type == int.class && n >= RADIX_THRESHOLD) {
+            return new Decision(Algorithm.RADIX, "at least " + RADIX_THRESHOLD + " primitives", features);
+        }
+        if (features.duplicateRatio() >= DUPLICATE_THRESHOLD) {
+            return new Decision(Algorithm.QUICK_3WAY, "duplicate ratio " + features.duplicateRatio(), features);
+        }
+        return new Decision(Algorithm.QUICK, "no other rule matched", features);
+    }
+}
@@ -0,0 +1,101 @@
+package utils;
+
+/**
+ * A map from long keys to non-negative int values (usually indexes into arrays), stored in two
+ * primitive arrays, so neither the keys nor the values are ever boxed, unlike a
+ * HashMap&lt;Long, Integer&gt;, which creates two objects and an entry per mapping.
+ *  - open addressing: there are no buckets, each key goes in the slot given by its hash, or in
+ *  the next free slot after it (linear probing)
+ *  - the value is stored plus one, so a 0 in values marks a free slot, and any long can be a key
+ *  - the capacity is a power of two, and doubles when the map gets 3/4 full, which keeps the
+ *  probe sequences short and makes insertions amortized O(1)
+ * <p>
+ * Mappings cannot be removed, which keeps probing simple (no tombstones).
+ */
+public class LongIndexMap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIndexMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongIndexMap(int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize + expectedSize / 3) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns the value mapped to key, or -1 when there is none
+    public int get(long key) {
+        for (var slot = hash(key) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    // Maps key to value, unless key is already mapped. Returns the existing value, or -1
+    // when value was added
+    public int putIfAbsent(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value " + value + " is negative");
+        }
+
+        var slot = hash(key) & mask;
+        for (; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (++size > (mask + 1) - ((mask + 1) >>> 2)) {
+            grow();
+        }
+        return -1;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldValues = values;
+        var capacity = oldKeys.length * 2;
+
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == 0) continue;
+
+            var slot = hash(oldKeys[i]) & mask;
+            while (values[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    // Sequential keys would fill consecutive slots, so the bits are mixed first
+    // (the finalizer of MurmurHash3)
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
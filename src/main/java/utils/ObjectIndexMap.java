@@ -0,0 +1,90 @@
+package utils;
+
+/**
+ * The same open addressing map as {@link LongIndexMap}, for object keys compared with equals.
+ * The keys are objects anyway, but the values stay in an int[], so mapping a key does not create
+ * an Integer and a map entry for it. Keys cannot be null.
+ */
+public class ObjectIndexMap<K> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public ObjectIndexMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ObjectIndexMap(int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize + expectedSize / 3) - 1) << 1;
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns the value mapped to key, or -1 when there is none
+    public int get(K key) {
+        for (var slot = hash(key) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(key)) {
+                return values[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    // Maps key to value, unless key is already mapped. Returns the existing value, or -1
+    // when value was added
+    public int putIfAbsent(K key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value " + value + " is negative");
+        }
+
+        var slot = hash(key) & mask;
+        for (; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(key)) {
+                return values[slot] - 1;
+            }
+        }
+
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (++size > (mask + 1) - ((mask + 1) >>> 2)) {
+            grow();
+        }
+        return -1;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldValues = values;
+        var capacity = oldKeys.length * 2;
+
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == 0) continue;
+
+            var slot = hash(oldKeys[i]) & mask;
+            while (values[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    // hashCode is often weak in the low bits (consecutive Integers, short Strings), spread the
+    // high bits down like HashMap does
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
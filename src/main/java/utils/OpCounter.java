@@ -0,0 +1,182 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the basic operations an algorithm does, to compare algorithms by the work they do
+ * rather than only by their running time:
+ *  - comparisons, swaps and array accesses
+ *  - allocations, as the number of arrays and the number of elements in them
+ *  - the maximum recursion depth, tracked per thread with enter() and exit()
+ *  - a histogram of the path lengths walked by find in the union-find classes, where the last
+ *  bucket holds every path of MAX_PATH_LENGTH or more
+ * <p>
+ * The counters are LongAdders, so many threads can update them without contending on a single
+ * cache line, for the parallel sorts and ConcurrentUnionFind. toMap() exports every counter
+ * under a flat name, to be pushed to whatever collects the metrics.
+ * <p>
+ * Nothing is counted unless a counter is given to the algorithm: the union-find classes take one
+ * in a constructor, and the sorts in algorithms.sorting count into the counter whose count(...)
+ * they run in, on the calling thread and in the fork/join tasks they start:
+ * <pre>
+ *     var counter = new OpCounter();
+ *     counter.count(() -&gt; QuickSort.introSort(arr));
+ * </pre>
+ * Sorts running outside of count(...), or on other threads, are not counted, so concurrent sorts
+ * never mix their numbers. The hooks in Utils are behind a static final flag, the sorts are only
+ * counted when the JVM is started with -Dutils.countOperations=true, and cost nothing otherwise.
+ */
+public class OpCounter {
+    public static final int MAX_PATH_LENGTH = 32;
+
+    // The counter the sorts running on each thread count into, null outside of count(...)
+    private static final ThreadLocal<OpCounter> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder swaps = new LongAdder();
+    private final LongAdder arrayAccesses = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder allocatedElements = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private final LongAdder[] pathLengths = new LongAdder[MAX_PATH_LENGTH + 1];
+
+    public OpCounter() {
+        for (var i = 0; i < pathLengths.length; i++) {
+            pathLengths[i] = new LongAdder();
+        }
+    }
+
+    // Runs the action with the sorts it calls counting into this counter. Calls can be nested, the
+    // previous counter is back in place when the action ends
+    public void count(Runnable action) {
+        if (!Utils.COUNTING) {
+            throw new IllegalStateException("sorts are only counted when the JVM is started with -Dutils.countOperations=true");
+        }
+        runIn(this, action);
+    }
+
+    // The counter of the count(...) running on this thread, or null
+    public static OpCounter current() {
+        return CURRENT.get();
+    }
+
+    // For tasks running on other threads, so they count into the counter of the thread that
+    // created them. Runs the action as is when counter is null
+    public static void runIn(OpCounter counter, Runnable action) {
+        if (counter == null) {
+            action.run();
+            return;
+        }
+
+        var previous = CURRENT.get();
+        CURRENT.set(counter);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    public void comparison() {
+        comparisons.increment();
+    }
+
+    public void swap() {
+        swaps.increment();
+    }
+
+    public void arrayAccesses(int count) {
+        arrayAccesses.add(count);
+    }
+
+    public void allocation(int length) {
+        allocations.increment();
+        allocatedElements.add(length);
+    }
+
+    // Called when entering a recursive call, must be paired with exit()
+    public void enter() {
+        int[] current = depth.get();
+        maxDepth.accumulate(++current[0]);
+    }
+
+    public void exit() {
+        depth.get()[0]--;
+    }
+
+    public void pathLength(int length) {
+        pathLengths[Math.min(length, MAX_PATH_LENGTH)].increment();
+    }
+
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    public long getSwaps() {
+        return swaps.sum();
+    }
+
+    public long getArrayAccesses() {
+        return arrayAccesses.sum();
+    }
+
+    public long getAllocations() {
+        return allocations.sum();
+    }
+
+    public long getAllocatedElements() {
+        return allocatedElements.sum();
+    }
+
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    // Number of finds that walked each path length, index i counts paths of length i
+    public long[] getPathLengths() {
+        var result = new long[pathLengths.length];
+        for (var i = 0; i < result.length; i++) {
+            result[i] = pathLengths[i].sum();
+        }
+        return result;
+    }
+
+    // Clears every counter. The depth of recursive calls still running on other threads is kept
+    public void reset() {
+        comparisons.reset();
+        swaps.reset();
+        arrayAccesses.reset();
+        allocations.reset();
+        allocatedElements.reset();
+        maxDepth.reset();
+        for (var pathLength : pathLengths) {
+            pathLength.reset();
+        }
+    }
+
+    // Every counter by name, in a fixed order, with one pathLength.<i> entry per histogram bucket
+    public Map<String, Long> toMap() {
+        var result = new LinkedHashMap<String, Long>();
+        result.put("comparisons", getComparisons());
+        result.put("swaps", getSwaps());
+        result.put("arrayAccesses", getArrayAccesses());
+        result.put("allocations", getAllocations());
+        result.put("allocatedElements", getAllocatedElements());
+        result.put("maxDepth", getMaxDepth());
+        long[] lengths = getPathLengths();
+        for (var i = 0; i < lengths.length; i++) {
+            result.put("pathLength." + i, lengths[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
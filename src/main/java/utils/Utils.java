@@ -1,6 +1,7 @@
 package utils;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -16,17 +17,116 @@ public class Utils {
     // swaps and comparisons. This is useful to compare different algorithms and understand
     // how many operations each one of them does. For algorithms that do not swap elements
     // in this way, we can also count array accesses.
+    //
+    // Counting is off unless the JVM is started with -Dutils.countOperations=true. The flag is a
+    // static final constant, so when it is off the JIT removes the checks below entirely, and
+    // the sorts run exactly as if the counting code was not there. When it is on, the operations
+    // go to the OpCounter whose count(...) the sort runs in, see OpCounter.current()
 
-    public static <T extends Comparable<? super T>> void swap(T[] arr, int i, int j) {
+    public static final boolean COUNTING = Boolean.getBoolean("utils.countOperations");
+
+    public static <T> void swap(T[] arr, int i, int j) {
+        if (COUNTING) countSwap();
         T swap = arr[i];
         arr[i] = arr[j];
         arr[j] = swap;
     }
 
+    public static void swap(int[] arr, int i, int j) {
+        if (COUNTING) countSwap();
+        int swap = arr[i];
+        arr[i] = arr[j];
+        arr[j] = swap;
+    }
+
+    public static void swap(long[] arr, int i, int j) {
+        if (COUNTING) countSwap();
+        long swap = arr[i];
+        arr[i] = arr[j];
+        arr[j] = swap;
+    }
+
+    public static void swap(double[] arr, int i, int j) {
+        if (COUNTING) countSwap();
+        double swap = arr[i];
+        arr[i] = arr[j];
+        arr[j] = swap;
+    }
+
     public static <T extends Comparable<? super T>> boolean isLess(T first, T second) {
+        if (COUNTING) countComparison();
         return first.compareTo(second) < 0;
     }
 
+    public static <T extends Comparable<? super T>> int compare(T first, T second) {
+        if (COUNTING) countComparison();
+        return first.compareTo(second);
+    }
+
+    public static <T> boolean isLess(T first, T second, Comparator<? super T> comparator) {
+        if (COUNTING) countComparison();
+        return comparator.compare(first, second) < 0;
+    }
+
+    public static <T> int compare(T first, T second, Comparator<? super T> comparator) {
+        if (COUNTING) countComparison();
+        return comparator.compare(first, second);
+    }
+
+    // The primitive sorts compare through these, so they are counted like the generic ones.
+    // They compile to a plain < once inlined. For double, NaN is never less than anything
+
+    public static boolean isLess(int first, int second) {
+        if (COUNTING) countComparison();
+        return first < second;
+    }
+
+    public static boolean isLess(long first, long second) {
+        if (COUNTING) countComparison();
+        return first < second;
+    }
+
+    public static boolean isLess(double first, double second) {
+        if (COUNTING) countComparison();
+        return first < second;
+    }
+
+    // Hooks for the sorts to report what they do besides comparing and swapping
+
+    public static void countAllocation(int length) {
+        if (COUNTING) {
+            var counter = OpCounter.current();
+            if (counter != null) counter.allocation(length);
+        }
+    }
+
+    public static void enterRecursion() {
+        if (COUNTING) {
+            var counter = OpCounter.current();
+            if (counter != null) counter.enter();
+        }
+    }
+
+    public static void exitRecursion() {
+        if (COUNTING) {
+            var counter = OpCounter.current();
+            if (counter != null) counter.exit();
+        }
+    }
+
+    private static void countSwap() {
+        var counter = OpCounter.current();
+        if (counter != null) {
+            counter.swap();
+            counter.arrayAccesses(4);
+        }
+    }
+
+    private static void countComparison() {
+        var counter = OpCounter.current();
+        if (counter != null) counter.comparison();
+    }
+
     public static <T extends Comparable<? super T>> void runWithTime(Consumer<T[]> method, T[] arr) {
         long before = System.nanoTime();
         method.accept(arr);
@@ -52,6 +152,15 @@ public class Utils {
         return true;
     }
 
+    public static <T> boolean isSorted(T[] array, Comparator<? super T> comparator) {
+        for (int i = 1; i < array.length; i++) {
+            if (comparator.compare(array[i], array[i - 1]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean isSorted(int[] array) {
         for (int i = 1; i < array.length; i++) {
             if (array[i] < array[i - 1]) {
@@ -61,12 +170,43 @@ public class Utils {
         return true;
     }
 
+    public static boolean isSorted(long[] array) {
+        for (int i = 1; i < array.length; i++) {
+            if (array[i] < array[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isSorted(double[] array) {
+        for (int i = 1; i < array.length; i++) {
+            if (array[i] < array[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static Integer[] createRandomArray(int size, int min, int max) {
         return Stream.generate(() -> ThreadLocalRandom.current().nextInt(min, max))
                 .limit(size)
                 .toArray(Integer[]::new);
     }
 
+    // Primitive generators, the values go straight into the array without creating any boxes
+    public static int[] createRandomIntArray(int size, int min, int max) {
+        return ThreadLocalRandom.current().ints(size, min, max).toArray();
+    }
+
+    public static long[] createRandomLongArray(int size, long min, long max) {
+        return ThreadLocalRandom.current().longs(size, min, max).toArray();
+    }
+
+    public static double[] createRandomDoubleArray(int size, double min, double max) {
+        return ThreadLocalRandom.current().doubles(size, min, max).toArray();
+    }
+
     public static Integer[][] createMultipleIdenticalArrays(int n, int arrSize, int minBound, int maxBound) {
         var result = new Integer[n][];
         var original = createRandomArray(arrSize, minBound, maxBound);
@@ -0,0 +1,107 @@
+package algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentUnionFindTest {
+
+    @Test
+    public void testUnionWhenManyThreadsThenSameComponentsAsSequential() throws Exception {
+        // Arrange
+        var n = 100_000;
+        var edges = 80_000;
+        var threads = 8;
+        var random = new Random(7);
+        var ps = new int[edges];
+        var qs = new int[edges];
+        var expected = new WeightedQuickUnion(n);
+        for (var i = 0; i < edges; i++) {
+            ps[i] = random.nextInt(n);
+            qs[i] = random.nextInt(n);
+            expected.union(ps[i], qs[i]);
+        }
+        var unionFind = new ConcurrentUnionFind(n);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        try {
+            var futures = new Future<?>[threads];
+            for (var t = 0; t < threads; t++) {
+                int offset = t;
+                futures[t] = executor.submit(() -> {
+                    for (var i = offset; i < edges; i += threads) {
+                        unionFind.union(ps[i], qs[i]);
+                        unionFind.connected(qs[i], ps[(i + 1) % edges]);
+                    }
+                });
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertEquals(expected.getCount(), unionFind.getCount(), "Both should have the same number of components");
+        for (var i = 0; i < 10_000; i++) {
+            int p = random.nextInt(n);
+            int q = random.nextInt(n);
+            assertEquals(expected.connected(p, q), unionFind.connected(p, q), "Connectivity should match the sequential version");
+        }
+    }
+
+    @Test
+    public void testFindWhenIndexIsInvalidThenThrowIllegalArgumentException() {
+        // Arrange
+        var unionFind = new ConcurrentUnionFind(10);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> unionFind.find(-1), "An IllegalArgumentException should be thrown when an invalid index is used");
+    }
+
+    @Test
+    public void testConnectedComponentsWhenParallelThenSameLabelsAsSequential() {
+        // Arrange
+        var n = 50_000;
+        var edges = 40_000;
+        var random = new Random(11);
+        var ps = new int[edges];
+        var qs = new int[edges];
+        for (var i = 0; i < edges; i++) {
+            ps[i] = random.nextInt(n);
+            qs[i] = random.nextInt(n);
+        }
+        var sequential = new WeightedQuickUnionPathCompression(n);
+
+        // Act
+        sequential.union(ps, qs);
+        var expected = sequential.components();
+        var labels = ConcurrentUnionFind.connectedComponents(n, ps, qs);
+
+        // Assert
+        assertArrayEquals(expected, labels, "Labels should not depend on the implementation or the order of the unions");
+        assertEquals(sequential.getCount(), Arrays.stream(labels).max().orElse(-1) + 1, "Labels should go from 0 to getCount() - 1");
+    }
+
+    @Test
+    public void testConnectedWhenBatchThenOneResultPerPair() {
+        // Arrange
+        var unionFind = new ConcurrentUnionFind(10);
+        unionFind.union(new int[]{1, 2, 5}, new int[]{2, 3, 6});
+
+        // Act
+        var result = unionFind.connected(new int[]{1, 1, 5}, new int[]{3, 5, 6});
+
+        // Assert
+        assertArrayEquals(new boolean[]{true, false, true}, result, "Each pair should be answered in order");
+        assertThrows(IllegalArgumentException.class, () -> unionFind.union(new int[2], new int[3]), "An IllegalArgumentException should be thrown when the arrays have different lengths");
+    }
+}
@@ -0,0 +1,72 @@
+package algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicUnionFindTest {
+
+    @Test
+    public void testAddWhenCapacityExceededThenElementsKeepTheirComponents() {
+        // Arrange
+        var unionFind = new DynamicUnionFind(3);
+        unionFind.union(0, 2);
+
+        // Act
+        for (var i = 0; i < 1_000; i++) {
+            int added = unionFind.add();
+            unionFind.union(added, added % 2 == 0 ? 0 : 1);
+        }
+
+        // Assert
+        assertEquals(1_003, unionFind.size(), "Size should include the added elements");
+        assertEquals(2, unionFind.getCount(), "Added elements should have joined one of the two components");
+        assertTrue(unionFind.connected(2, 1_002), "Elements added before and after growing should be connected");
+        assertFalse(unionFind.connected(0, 1), "Components that were never merged should stay apart");
+    }
+
+    @Test
+    public void testFindWhenIndexNotAddedYetThenThrowIllegalArgumentException() {
+        // Arrange
+        var unionFind = new DynamicUnionFind();
+        unionFind.add();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> unionFind.find(1), "An IllegalArgumentException should be thrown for an index that was not added");
+    }
+
+    @Test
+    public void testUnionWhenLongKeysThenKeysAddedOnFirstSight() {
+        // Arrange
+        var unionFind = new LongKeyedUnionFind();
+
+        // Act
+        for (long key = 0; key < 10_000; key++) {
+            unionFind.union(key * 1_000_003L, Long.MIN_VALUE + (key % 3));
+        }
+
+        // Assert
+        assertEquals(10_003, unionFind.size(), "Every distinct key should be added once");
+        assertEquals(3, unionFind.getCount(), "Keys should be in three components");
+        assertTrue(unionFind.connected(3 * 1_000_003L, 6 * 1_000_003L), "Keys unioned with the same key should be connected");
+        assertFalse(unionFind.connected(1, -1), "Keys that were never seen should not be connected");
+        assertEquals(unionFind.find(Long.MIN_VALUE), unionFind.find(0L), "Find should return the same root key for the whole component");
+    }
+
+    @Test
+    public void testUnionWhenObjectKeysThenConnectedByEquals() {
+        // Arrange
+        var unionFind = new KeyedUnionFind<String>();
+
+        // Act
+        unionFind.union("alice", "bob");
+        unionFind.union(new String("bob"), "carol");
+        unionFind.union("dave", "erin");
+
+        // Assert
+        assertTrue(unionFind.connected("alice", "carol"), "Equal keys should be the same element");
+        assertFalse(unionFind.connected("alice", "erin"), "Different components should not be connected");
+        assertEquals(5, unionFind.size(), "Every distinct key should be added once");
+        assertEquals(2, unionFind.getCount(), "There should be two components");
+    }
+}
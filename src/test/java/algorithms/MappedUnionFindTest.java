@@ -0,0 +1,70 @@
+package algorithms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedUnionFindTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testOpenWhenCheckpointedThenComponentsRestored() throws IOException {
+        // Arrange
+        var file = tempDir.resolve("components.uf");
+        try (var unionFind = MappedUnionFind.create(file, 1_000)) {
+            unionFind.union(1, 2);
+            unionFind.union(2, 3);
+            unionFind.union(500, 999);
+            unionFind.checkpoint();
+        }
+
+        // Act
+        try (var reopened = MappedUnionFind.open(file)) {
+
+            // Assert
+            assertEquals(1_000, reopened.size(), "Size should be read from the file");
+            assertEquals(997, reopened.getCount(), "Count should be read from the file");
+            assertTrue(reopened.connected(1, 3), "Unions before the checkpoint should be kept");
+            assertTrue(reopened.connected(999, 500), "Unions before the checkpoint should be kept");
+            assertFalse(reopened.connected(1, 500), "Components should not be merged by reopening");
+        }
+    }
+
+    @Test
+    public void testOpenWhenClosedWithoutCheckpointThenCountRecounted() throws IOException {
+        // Arrange
+        var file = tempDir.resolve("crashed.uf");
+        var unionFind = MappedUnionFind.create(file, 1_000);
+        unionFind.union(1, 2);
+        unionFind.checkpoint();
+        unionFind.union(2, 3);
+        unionFind.union(500, 999);
+        unionFind.union(3, 999);
+        unionFind.closeWithoutCheckpoint();
+
+        // Act
+        try (var reopened = MappedUnionFind.open(file)) {
+
+            // Assert
+            assertEquals(996, reopened.getCount(), "Count should be recounted from the roots, not read from the last checkpoint");
+            assertTrue(reopened.connected(1, 500), "Unions after the checkpoint should be kept");
+        }
+    }
+
+    @Test
+    public void testOpenWhenNotAUnionFindFileThenThrowIOException() throws IOException {
+        // Arrange
+        var file = tempDir.resolve("other.bin");
+        Files.write(file, new byte[64]);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> MappedUnionFind.open(file), "An IOException should be thrown for a file without the header");
+    }
+}
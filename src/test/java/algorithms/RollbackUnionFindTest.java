@@ -0,0 +1,55 @@
+package algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollbackUnionFindTest {
+
+    @Test
+    public void testRollbackWhenSpeculativeBatchThenSameAsBeforeTheBatch() {
+        // Arrange
+        var n = 500;
+        var rollback = new RollbackUnionFind(n);
+        var expected = new WeightedQuickUnion(n);
+        var random = new Random(42);
+        for (var i = 0; i < 200; i++) {
+            int p = random.nextInt(n);
+            int q = random.nextInt(n);
+            rollback.union(p, q);
+            expected.union(p, q);
+        }
+        int snapshot = rollback.snapshot();
+
+        // Act
+        for (var i = 0; i < 400; i++) {
+            rollback.union(random.nextInt(n), random.nextInt(n));
+        }
+        int countInBatch = rollback.getCount();
+        rollback.rollback(snapshot);
+
+        // Assert
+        assertTrue(countInBatch < expected.getCount(), "The batch should have merged some components");
+        assertEquals(expected.getCount(), rollback.getCount(), "Count should be back to the one at the snapshot");
+        for (var p = 0; p < n; p++) {
+            for (var q = p + 1; q < n; q += 11) {
+                assertEquals(expected.connected(p, q), rollback.connected(p, q), "Connectivity should be back to the one at the snapshot");
+            }
+        }
+    }
+
+    @Test
+    public void testRollbackWhenSnapshotIsInTheFutureThenThrowIllegalArgumentException() {
+        // Arrange
+        var rollback = new RollbackUnionFind(10);
+        rollback.union(1, 2);
+        int snapshot = rollback.snapshot();
+        rollback.rollback(0);
+
+        // Act & Assert
+        assertFalse(rollback.undo(), "There should be nothing left to undo");
+        assertThrows(IllegalArgumentException.class, () -> rollback.rollback(snapshot), "An IllegalArgumentException should be thrown for a snapshot that was rolled back");
+    }
+}
@@ -0,0 +1,63 @@
+package algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopComponentsTest {
+
+    @Test
+    public void testUnionWhenRandomPairsThenStatisticsMatchFullScan() {
+        // Arrange
+        int n = 2_000;
+        var unionFind = new WeightedQuickUnionPathCompression(n);
+        var top = new TopComponents(n);
+        var merges = new int[1];
+        unionFind.setListener((root, absorbed, size) -> {
+            merges[0]++;
+            top.onUnion(root, absorbed, size);
+        });
+        var random = new Random(42);
+
+        // Act
+        for (var i = 0; i < 1_500; i++) {
+            unionFind.union(random.nextInt(n), random.nextInt(n));
+        }
+
+        // Assert
+        var sizes = new int[n];
+        for (var i = 0; i < n; i++) {
+            sizes[unionFind.find(i)]++;
+        }
+        var expected = Arrays.stream(sizes).filter(size -> size > 1).boxed()
+                .sorted((a, b) -> b - a).limit(10).mapToInt(Integer::intValue).toArray();
+        var actual = top.top(10).stream().mapToInt(TopComponents.Component::size).toArray();
+
+        assertEquals(n - unionFind.getCount(), merges[0], "The listener should be called once for every merge");
+        assertEquals(expected[0], unionFind.largestComponentSize(), "Largest component size should match a full scan");
+        assertEquals(expected[0], top.largestSize(), "Top components should agree on the largest size");
+        assertArrayEquals(expected, actual, "Top 10 sizes should match a full scan");
+        for (var component : top.top(10)) {
+            assertEquals(component.size(), unionFind.componentSize(component.root()), "Component size should match the one reported by top");
+        }
+    }
+
+    @Test
+    public void testComponentSizeWhenNoUnionsThenEveryComponentHasOneElement() {
+        // Arrange
+        var unionFind = new WeightedQuickUnion(5);
+        var top = new TopComponents(5);
+        unionFind.setListener(top);
+
+        // Act
+        int size = unionFind.componentSize(3);
+
+        // Assert
+        assertEquals(1, size, "Every element should start in a component of its own");
+        assertEquals(1, unionFind.largestComponentSize(), "The largest component should have one element");
+        assertTrue(top.top(3).isEmpty(), "Single element components should not be reported");
+    }
+}
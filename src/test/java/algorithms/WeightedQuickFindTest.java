@@ -0,0 +1,79 @@
+package algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedQuickFindTest {
+
+    @Test
+    public void testConnectedWhenRandomUnionsThenMatchesQuickFind() {
+        // Arrange
+        var n = 1_000;
+        var expected = new QuickFind(n);
+        var weighted = new WeightedQuickFind(n);
+        var random = new Random(42);
+
+        // Act
+        for (var i = 0; i < 900; i++) {
+            int p = random.nextInt(n);
+            int q = random.nextInt(n);
+            expected.union(p, q);
+            weighted.union(p, q);
+        }
+
+        // Assert
+        assertEquals(expected.getCount(), weighted.getCount(), "Both should have the same number of components");
+        for (var p = 0; p < n; p++) {
+            for (var q = p + 1; q < n; q += 7) {
+                assertEquals(expected.connected(p, q), weighted.connected(p, q), "Connectivity should match QuickFind");
+            }
+        }
+    }
+
+    @Test
+    public void testUnionWhenEverythingMergedThenSingleId() {
+        // Arrange
+        var n = 64;
+        var weighted = new WeightedQuickFind(n);
+
+        // Act
+        for (var i = 1; i < n; i++) {
+            weighted.union(i, i % 2 == 0 ? 0 : i - 1);
+        }
+
+        // Assert
+        assertEquals(1, weighted.getCount(), "Everything should be in one component");
+        for (var i = 1; i < n; i++) {
+            assertEquals(weighted.find(0), weighted.find(i), "Every element should have the same id");
+        }
+    }
+
+    @Test
+    public void testComponentSizeWhenRandomUnionsThenMatchesWeightedQuickUnion() {
+        // Arrange
+        var n = 1_000;
+        var expected = new WeightedQuickUnion(n);
+        var weighted = new WeightedQuickFind(n);
+        var top = new TopComponents(n);
+        weighted.setListener(top);
+        var random = new Random(7);
+
+        // Act
+        for (var i = 0; i < 800; i++) {
+            int p = random.nextInt(n);
+            int q = random.nextInt(n);
+            expected.union(p, q);
+            weighted.union(p, q);
+        }
+
+        // Assert
+        assertEquals(expected.largestComponentSize(), weighted.largestComponentSize(), "The largest component should match");
+        assertEquals(expected.largestComponentSize(), top.largestSize(), "The listener should report every merge");
+        for (var p = 0; p < n; p++) {
+            assertEquals(expected.componentSize(p), weighted.componentSize(p), "Component sizes should match");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package algorithms;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import utils.OpCounter;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedQuickUnionPathCompressionTest {
+
+    @ParameterizedTest
+    @EnumSource(WeightedQuickUnionPathCompression.Compression.class)
+    public void testConnectedWhenRandomUnionsThenMatchesWeightedQuickUnion(WeightedQuickUnionPathCompression.Compression compression) {
+        // Arrange
+        var n = 1_000;
+        var expected = new WeightedQuickUnion(n);
+        var compressed = new WeightedQuickUnionPathCompression(n, compression);
+        var random = new Random(42);
+
+        // Act
+        for (var i = 0; i < 700; i++) {
+            int p = random.nextInt(n);
+            int q = random.nextInt(n);
+            expected.union(p, q);
+            compressed.union(p, q);
+        }
+
+        // Assert
+        assertEquals(expected.getCount(), compressed.getCount(), "Both should have the same number of components");
+        for (var i = 0; i < 2_000; i++) {
+            int p = random.nextInt(n);
+            int q = random.nextInt(n);
+            assertEquals(expected.connected(p, q), compressed.connected(p, q), "Connectivity should not depend on compression");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(WeightedQuickUnionPathCompression.Compression.class)
+    public void testFindWhenIndexIsInvalidThenThrowIllegalArgumentException(WeightedQuickUnionPathCompression.Compression compression) {
+        // Arrange
+        var unionFind = new WeightedQuickUnionPathCompression(10, compression);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> unionFind.find(10), "An IllegalArgumentException should be thrown when an invalid index is used");
+    }
+
+    @ParameterizedTest
+    @EnumSource(WeightedQuickUnionPathCompression.Compression.class)
+    public void testFindWhenCountedThenPathLengthsRecorded(WeightedQuickUnionPathCompression.Compression compression) {
+        // Arrange
+        var counter = new OpCounter();
+        var unionFind = new WeightedQuickUnionPathCompression(8, compression, counter);
+        unionFind.union(0, 1);
+        unionFind.union(2, 3);
+        unionFind.union(0, 2);
+        counter.reset();
+
+        // Act
+        unionFind.find(3);
+        unionFind.find(3);
+
+        // Assert
+        long[] pathLengths = counter.getPathLengths();
+        assertEquals(1, pathLengths[2], "The first find should walk the path of length 2 before compressing it");
+        assertEquals(1, pathLengths[1], "The second find should walk the compressed path");
+        assertEquals(2, counter.toMap().get("pathLength.1") + counter.toMap().get("pathLength.2"), "The exported histogram should match");
+    }
+}
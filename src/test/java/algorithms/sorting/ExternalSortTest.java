@@ -0,0 +1,92 @@
+package algorithms.sorting;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExternalSortTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSortIntsWhenManyMoreRunsThanFanInThenSortedAndRunsDeleted() throws IOException {
+        // Arrange
+        var random = new Random(42);
+        var values = new int[100_000];
+        var bytes = ByteBuffer.allocate(values.length * Integer.BYTES);
+        for (var i = 0; i < values.length; i++) {
+            values[i] = random.nextInt();
+            bytes.putInt(values[i]);
+        }
+        var input = Files.write(tempDir.resolve("input.bin"), bytes.array());
+        var output = tempDir.resolve("output.bin");
+        var runs = Files.createDirectory(tempDir.resolve("runs"));
+        // 6_144 ints per chunk, so 17 runs merged two at a time
+        var externalSort = new ExternalSort(3 * ExternalSort.MIN_BUFFER_SIZE, 2, runs);
+
+        // Act
+        long count = externalSort.sortInts(input, output);
+
+        // Assert
+        Arrays.sort(values);
+        var sorted = new int[values.length];
+        ByteBuffer.wrap(Files.readAllBytes(output)).asIntBuffer().get(sorted);
+        assertEquals(values.length, count, "Every value should be counted");
+        assertArrayEquals(values, sorted, "The output should hold the input values in order");
+        try (var left = Files.list(runs)) {
+            assertEquals(0, left.count(), "Every run should be deleted");
+        }
+    }
+
+    @Test
+    public void testSortLongsWhenStreamsThenSameFormatAsDataOutputStream() throws IOException {
+        // Arrange
+        var random = new Random(42);
+        var values = new long[50_000];
+        var bytes = new ByteArrayOutputStream();
+        try (var data = new DataOutputStream(bytes)) {
+            for (var i = 0; i < values.length; i++) {
+                values[i] = random.nextLong();
+                data.writeLong(values[i]);
+            }
+        }
+        var out = new ByteArrayOutputStream();
+        var externalSort = new ExternalSort(100_000, 4, tempDir);
+
+        // Act
+        externalSort.sortLongs(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), Channels.newChannel(out));
+
+        // Assert
+        Arrays.sort(values);
+        var data = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        for (var value : values) {
+            assertEquals(value, data.readLong(), "The output should be readable with DataInputStream, in order");
+        }
+        assertEquals(0, data.available(), "The output should hold nothing else");
+    }
+
+    @Test
+    public void testSortIntsWhenInputEndsInTheMiddleOfAValueThenThrowIOException() {
+        // Arrange
+        var externalSort = new ExternalSort();
+        var in = Channels.newChannel(new ByteArrayInputStream(new byte[]{0, 0, 0, 1, 0, 0}));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> externalSort.sortInts(in, Channels.newChannel(new ByteArrayOutputStream())),
+                "An IOException should be thrown when the input is not a whole number of ints");
+    }
+}
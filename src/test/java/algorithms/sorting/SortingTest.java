@@ -0,0 +1,743 @@
+package algorithms.sorting;
+
+import org.junit.jupiter.api.Test;
+import utils.OpCounter;
+import utils.Utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class SortingTest {
+
+    @Test
+    public void testPrimitiveIntSortsWhenRandomInputThenMatchArraysSort() {
+        // Arrange
+        var arr = Utils.createRandomIntArray(5_000, -1_000, 1_000);
+        var expected = arr.clone();
+        Arrays.sort(expected);
+
+        // Act
+        var insertion = arr.clone();
+        Insertion.sort(insertion);
+        var shell = arr.clone();
+        ShellSort.sort(shell);
+        var merge = arr.clone();
+        MergeSort.sort(merge);
+        var quick = arr.clone();
+        QuickSort.sort(quick);
+
+        // Assert
+        assertArrayEquals(expected, insertion, "Insertion sort should sort int[]");
+        assertArrayEquals(expected, shell, "Shell sort should sort int[]");
+        assertArrayEquals(expected, merge, "Merge sort should sort int[]");
+        assertArrayEquals(expected, quick, "Quick sort should sort int[]");
+    }
+
+    @Test
+    public void testPrimitiveLongAndDoubleSortsWhenRandomInputThenMatchArraysSort() {
+        // Arrange
+        var longs = Utils.createRandomLongArray(5_000, Long.MIN_VALUE / 2, Long.MAX_VALUE / 2);
+        var doubles = Utils.createRandomDoubleArray(5_000, -1.0, 1.0);
+        var expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        var expectedDoubles = doubles.clone();
+        Arrays.sort(expectedDoubles);
+
+        // Act
+        var longMerge = longs.clone();
+        MergeSort.sort(longMerge);
+        var longQuick = longs.clone();
+        QuickSort.sort(longQuick);
+        var doubleShell = doubles.clone();
+        ShellSort.sort(doubleShell);
+        var doubleInsertion = doubles.clone();
+        Insertion.sort(doubleInsertion);
+
+        // Assert
+        assertArrayEquals(expectedLongs, longMerge, "Merge sort should sort long[]");
+        assertArrayEquals(expectedLongs, longQuick, "Quick sort should sort long[]");
+        assertArrayEquals(expectedDoubles, doubleShell, "Shell sort should sort double[]");
+        assertArrayEquals(expectedDoubles, doubleInsertion, "Insertion sort should sort double[]");
+    }
+
+    @Test
+    public void testQuickSortParallelSortWhenSmallCutoffThenSortedOnGivenPool() {
+        // Arrange
+        var boxed = Utils.createRandomArray(50_000, 0, 1_000);
+        var primitive = Utils.createRandomIntArray(50_000, 0, 1_000);
+        var expectedBoxed = boxed.clone();
+        Arrays.sort(expectedBoxed);
+        var expected = primitive.clone();
+        Arrays.sort(expected);
+        var pool = new ForkJoinPool(4);
+
+        // Act
+        try {
+            QuickSort.parallelSort(boxed, pool, 64);
+            QuickSort.parallelSort(primitive, pool, 64);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertArrayEquals(expectedBoxed, boxed, "Parallel quick sort should sort Integer[]");
+        assertArrayEquals(expected, primitive, "Parallel quick sort should sort int[]");
+    }
+
+    @Test
+    public void testQuickSortParallelSortWhenCutoffNotPositiveThenThrowIllegalArgumentException() {
+        // Arrange & Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.parallelSort(new int[10], ForkJoinPool.commonPool(), 0),
+                "An IllegalArgumentException should be thrown when the cutoff is less than 1");
+    }
+
+    @Test
+    public void testMergeSortWithBufferWhenBufferReusedThenEachArraySortedAndStable() {
+        // Arrange
+        var first = entries(Utils.createRandomIntArray(10_000, 0, 100));
+        var second = entries(Utils.createRandomIntArray(5_000, 0, 100));
+        var primitive = Utils.createRandomIntArray(10_000, 0, 100);
+        var expectedFirst = first.clone();
+        Arrays.sort(expectedFirst);
+        var expectedSecond = second.clone();
+        Arrays.sort(expectedSecond);
+        var expected = primitive.clone();
+        Arrays.sort(expected);
+        var buffer = new Entry[10_000];
+
+        // Act
+        MergeSort.withBuffer(first, buffer);
+        MergeSort.withBuffer(second, buffer);
+        MergeSort.withBuffer(primitive, new int[10_000]);
+
+        // Assert
+        assertArrayEquals(expectedFirst, first, "The first array should be sorted, with equal keys in their original order");
+        assertArrayEquals(expectedSecond, second, "The second array should be sorted with the same buffer, and stay stable");
+        assertArrayEquals(expected, primitive, "The int[] version should sort int[]");
+    }
+
+    @Test
+    public void testMergeSortWithBufferWhenBufferTooSmallThenThrowIllegalArgumentException() {
+        // Arrange & Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> MergeSort.withBuffer(new int[10], new int[5]),
+                "An IllegalArgumentException should be thrown when the buffer is smaller than the array");
+    }
+
+    @Test
+    public void testMergeSortBottomUpWhenSizeNotPowerOfTwoThenSortedAndStable() {
+        // Arrange
+        var boxed = entries(Utils.createRandomIntArray(10_007, 0, 1_000));
+        var primitive = Utils.createRandomIntArray(10_007, 0, 1_000);
+        var expectedBoxed = boxed.clone();
+        Arrays.sort(expectedBoxed);
+        var expected = primitive.clone();
+        Arrays.sort(expected);
+
+        // Act
+        MergeSort.bottomUp(boxed);
+        MergeSort.bottomUp(primitive);
+
+        // Assert
+        assertArrayEquals(expectedBoxed, boxed, "Bottom-up merge sort should sort objects, with equal keys in their original order");
+        assertArrayEquals(expected, primitive, "Bottom-up merge sort should sort int[]");
+    }
+
+    @Test
+    public void testNaturalMergeSortWhenSortedWithAppendedBatchThenSortedAndStable() {
+        // Arrange
+        var keys = Utils.createRandomIntArray(20_000, 0, 50);
+        Arrays.sort(keys, 0, 19_000);
+        var arr = new Entry[keys.length];
+        for (var i = 0; i < keys.length; i++) {
+            arr[i] = new Entry(keys[i], i);
+        }
+        var expected = arr.clone();
+        Arrays.sort(expected);
+        var expectedKeys = keys.clone();
+        Arrays.sort(expectedKeys);
+
+        // Act
+        NaturalMergeSort.sort(arr);
+        NaturalMergeSort.sort(keys);
+
+        // Assert
+        assertArrayEquals(expected, arr, "Equal keys should keep their original order");
+        assertArrayEquals(expectedKeys, keys, "Natural merge sort should sort int[]");
+    }
+
+    @Test
+    public void testQuickSortWhenInputAlreadySortedThenSortedWithoutDeepRecursion() {
+        // Arrange
+        var ascending = new Integer[1_000_000];
+        var descending = new int[1_000_000];
+        var expectedAscending = new Integer[ascending.length];
+        var expectedDescending = new int[descending.length];
+        for (var i = 0; i < ascending.length; i++) {
+            ascending[i] = i;
+            descending[i] = descending.length - i;
+            expectedAscending[i] = i;
+            expectedDescending[i] = i + 1;
+        }
+
+        // Act & Assert
+        assertDoesNotThrow(() -> QuickSort.sort(ascending), "Sorted input should not overflow the stack");
+        assertDoesNotThrow(() -> QuickSort.sort(descending), "Reverse sorted input should not overflow the stack");
+        assertArrayEquals(expectedAscending, ascending, "Sorted input should stay sorted");
+        assertArrayEquals(expectedDescending, descending, "Reverse sorted input should be sorted");
+    }
+
+    @Test
+    public void testQuickSort3WayAndDualPivotWhenFewDistinctKeysThenMatchArraysSort() {
+        // Arrange
+        var arr = Utils.createRandomIntArray(100_000, 0, 4);
+        var boxed = Arrays.stream(arr).boxed().toArray(Integer[]::new);
+        var expected = arr.clone();
+        Arrays.sort(expected);
+
+        // Act
+        var threeWay = arr.clone();
+        QuickSort.sort3Way(threeWay);
+        var dualPivot = arr.clone();
+        QuickSort.sortDualPivot(dualPivot);
+        var boxedThreeWay = boxed.clone();
+        QuickSort.sort3Way(boxedThreeWay);
+        var boxedDualPivot = boxed.clone();
+        QuickSort.sortDualPivot(boxedDualPivot);
+
+        // Assert
+        assertArrayEquals(expected, threeWay, "3-way quick sort should sort int[]");
+        assertArrayEquals(expected, dualPivot, "Dual pivot quick sort should sort int[]");
+        var expectedBoxed = Arrays.stream(expected).boxed().toArray(Integer[]::new);
+        assertArrayEquals(expectedBoxed, boxedThreeWay, "3-way quick sort should sort Integer[]");
+        assertArrayEquals(expectedBoxed, boxedDualPivot, "Dual pivot quick sort should sort Integer[]");
+    }
+
+    @Test
+    public void testHeapSortAndIntroSortWhenRandomInputThenMatchArraysSort() {
+        // Arrange
+        var arr = Utils.createRandomIntArray(50_000, -1_000, 1_000);
+        var boxed = Arrays.stream(arr).boxed().toArray(Integer[]::new);
+        var expected = arr.clone();
+        Arrays.sort(expected);
+
+        // Act
+        var heap = arr.clone();
+        HeapSort.sort(heap);
+        var intro = arr.clone();
+        QuickSort.introSort(intro);
+        HeapSort.sort(boxed);
+
+        // Assert
+        assertArrayEquals(expected, heap, "Heap sort should sort int[]");
+        assertArrayEquals(expected, intro, "Intro sort should sort int[]");
+        assertArrayEquals(Arrays.stream(expected).boxed().toArray(Integer[]::new), boxed, "Heap sort should sort Integer[]");
+    }
+
+    @Test
+    public void testRadixSortWhenNegativeKeysThenMatchArraysSort() {
+        // Arrange
+        var ints = Utils.createRandomIntArray(50_000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        var longs = Utils.createRandomLongArray(50_000, Long.MIN_VALUE, Long.MAX_VALUE);
+        var expectedInts = ints.clone();
+        Arrays.sort(expectedInts);
+        var expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+
+        // Act
+        RadixSort.sort(ints);
+        RadixSort.sort(longs);
+
+        // Assert
+        assertArrayEquals(expectedInts, ints, "Radix sort should sort int[] with negative keys");
+        assertArrayEquals(expectedLongs, longs, "Radix sort should sort long[] with negative keys");
+    }
+
+    @Test
+    public void testRadixSortWhenStringsArePrefixesOfEachOtherThenMatchArraysSort() {
+        // Arrange
+        var arr = new String[]{"ID-10", "ID-1", "ID-", "ID-100", "ID-2", "", "ID-\u00e9", "ID-\u4e2d", "ID-1",
+                "ID-11", "ID-09", "ID-99", "ID-0", "ID-01", "ID-010", "ID-001", "ID-3", "ID-30", "ID-300"};
+        var expected = arr.clone();
+        Arrays.sort(expected);
+
+        // Act
+        RadixSort.sort(arr);
+
+        // Assert
+        assertArrayEquals(expected, arr, "Radix sort should order strings like String.compareTo");
+    }
+
+    @Test
+    public void testParallelMergeSortWhenSmallCutoffThenSortedAndStable() {
+        // Arrange
+        var keys = Utils.createRandomIntArray(30_000, 0, 100);
+        var arr = new Entry[keys.length];
+        for (var i = 0; i < keys.length; i++) {
+            arr[i] = new Entry(keys[i], i);
+        }
+        var tiny = arr.clone();
+        var expected = arr.clone();
+        Arrays.sort(expected);
+        var expectedKeys = keys.clone();
+        Arrays.sort(expectedKeys);
+        var pool = new ForkJoinPool(4);
+
+        // Act
+        try {
+            ParallelMergeSort.sort(arr, pool, 64);
+            ParallelMergeSort.sort(tiny, pool, 1);
+            ParallelMergeSort.sort(keys, pool, 64);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertArrayEquals(expected, arr, "Equal keys should keep their original order");
+        assertArrayEquals(expected, tiny, "A cutoff of 1 should fork down to single elements and stay stable");
+        assertArrayEquals(expectedKeys, keys, "Parallel merge sort should sort int[]");
+    }
+
+    @Test
+    public void testComparatorSortsWhenReverseOrderThenMatchArraysSort() {
+        // Arrange
+        var source = Utils.createRandomArray(5_000, 0, 500);
+        var reversed = Comparator.<Integer>reverseOrder();
+        var expected = source.clone();
+        Arrays.sort(expected, reversed);
+        List<Consumer<Integer[]>> sorters = List.of(
+                arr -> Insertion.sort(arr, reversed),
+                arr -> Insertion.sortShift(arr, reversed),
+                arr -> Selection.sort(arr, reversed),
+                arr -> ShellSort.sort(arr, reversed),
+                arr -> HeapSort.sort(arr, reversed),
+                arr -> MergeSort.sort(arr, reversed),
+                arr -> MergeSort.inPlace(arr, reversed),
+                arr -> MergeSort.withBuffer(arr, reversed),
+                arr -> MergeSort.bottomUp(arr, reversed),
+                arr -> NaturalMergeSort.sort(arr, reversed),
+                arr -> QuickSort.sort(arr, reversed),
+                arr -> QuickSort.introSort(arr, reversed),
+                arr -> QuickSort.sort3Way(arr, reversed),
+                arr -> QuickSort.sortDualPivot(arr, reversed),
+                arr -> QuickSort.parallelSort(arr, reversed),
+                arr -> ParallelMergeSort.sort(arr, reversed));
+
+        for (var i = 0; i < sorters.size(); i++) {
+            var arr = source.clone();
+
+            // Act
+            sorters.get(i).accept(arr);
+
+            // Assert
+            assertArrayEquals(expected, arr, "Sorter " + i + " should sort in the order of the comparator");
+        }
+    }
+
+    @Test
+    public void testKeySortWhenIntAndLongKeysThenSortedAndStable() {
+        // Arrange
+        var keys = Utils.createRandomIntArray(20_000, -1_000, 1_000);
+        var byInt = new Entry[keys.length];
+        for (var i = 0; i < keys.length; i++) {
+            byInt[i] = new Entry(keys[i], i);
+        }
+        var byLong = byInt.clone();
+        var expected = byInt.clone();
+        Arrays.sort(expected);
+        ToLongFunction<Entry> longKey = entry -> (long) entry.key() * 1_000_000_007L;
+
+        // Act
+        int[] order = KeySort.orderByInt(byInt, Entry::key);
+        KeySort.sortByInt(byInt, Entry::key);
+        KeySort.sortByLong(byLong, longKey);
+
+        // Assert
+        assertArrayEquals(expected, byInt, "Sorting by an int key should be stable");
+        assertArrayEquals(expected, byLong, "Sorting by a long key should be stable");
+        assertEquals(expected[0].position(), order[0], "The order should start with the index of the smallest key");
+    }
+
+    @Test
+    public void testKWayMergeWhenRunsOfDifferentLengthsThenSortedAndStable() {
+        // Arrange
+        var random = new Random(42);
+        var intRuns = new int[7][];
+        var entryRuns = new Entry[7][];
+        var position = 0;
+        for (var r = 0; r < intRuns.length; r++) {
+            intRuns[r] = Utils.createRandomIntArray(r == 3 ? 0 : random.nextInt(2_000), -100, 100);
+            Arrays.sort(intRuns[r]);
+            entryRuns[r] = new Entry[intRuns[r].length];
+            for (var i = 0; i < intRuns[r].length; i++) {
+                entryRuns[r][i] = new Entry(intRuns[r][i], position++);
+            }
+        }
+        var expected = Arrays.stream(entryRuns).flatMap(Arrays::stream).sorted().toArray(Entry[]::new);
+        var intOutput = new int[position + 5];
+        var entryOutput = new Entry[position];
+
+        // Act
+        int length = KWayMerge.merge(intRuns, intOutput);
+        KWayMerge.merge(entryRuns, entryOutput);
+        var iterator = KWayMerge.mergeInts(Arrays.stream(intRuns).map(run -> Arrays.stream(run).iterator()).toList());
+
+        // Assert
+        assertEquals(position, length, "Every value should be written once");
+        assertArrayEquals(Arrays.stream(expected).mapToInt(Entry::key).toArray(), Arrays.copyOf(intOutput, length), "Int runs should be merged in order");
+        assertArrayEquals(expected, entryOutput, "Equal keys should keep the order of their runs");
+        for (var i = 0; i < length; i++) {
+            assertEquals(intOutput[i], iterator.nextInt(), "The iterator should return the same values as the array merge");
+        }
+        assertFalse(iterator.hasNext(), "The iterator should end with the runs");
+    }
+
+    @Test
+    public void testKWayMergeWhenOutputTooSmallThenThrowIllegalArgumentException() {
+        // Arrange & Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> KWayMerge.merge(new long[][]{{1, 2}, {3}}, new long[2]),
+                "An IllegalArgumentException should be thrown when the output cannot hold every value");
+    }
+
+    @Test
+    public void testPartialSortWhenSelectingEveryRankThenMatchArraysSort() {
+        // Arrange
+        var arr = Utils.createRandomIntArray(2_000, -50, 50);
+        var boxed = Arrays.stream(arr).boxed().toArray(Integer[]::new);
+        var expected = arr.clone();
+        Arrays.sort(expected);
+
+        // Act & Assert
+        for (var k = 0; k < arr.length; k += 37) {
+            var copy = arr.clone();
+            assertEquals(expected[k], PartialSort.select(copy, k), "select should return the k-th smallest value");
+            for (var i = 0; i < copy.length; i++) {
+                assertTrue(i < k ? copy[i] <= copy[k] : copy[i] >= copy[k], "select should partition the array around index k");
+            }
+            assertEquals(expected[k], PartialSort.select(boxed.clone(), k), "select should return the k-th smallest object");
+        }
+
+        var partial = arr.clone();
+        PartialSort.partialSort(partial, 100);
+        var partialBoxed = boxed.clone();
+        PartialSort.partialSort(partialBoxed, 100, Comparator.reverseOrder());
+        assertArrayEquals(Arrays.copyOf(expected, 100), Arrays.copyOf(partial, 100), "partialSort should sort the smallest values to the front");
+        for (var i = 0; i < 100; i++) {
+            assertEquals(expected[expected.length - 1 - i], partialBoxed[i], "partialSort should follow the comparator");
+        }
+    }
+
+    @Test
+    public void testPartialSortWhenStreamingTopKThenReturnSmallestInOrder() {
+        // Arrange
+        var arr = Utils.createRandomIntArray(10_000, -1_000_000, 1_000_000);
+        var expected = arr.clone();
+        Arrays.sort(expected);
+
+        // Act
+        var smallest = PartialSort.smallest(Arrays.stream(arr), 25);
+        var largest = PartialSort.smallest(Arrays.stream(arr).boxed().iterator(), 25, Comparator.reverseOrder());
+        var all = PartialSort.smallest(Arrays.stream(arr, 0, 10), 25);
+
+        // Assert
+        assertArrayEquals(Arrays.copyOf(expected, 25), smallest, "The 25 smallest values should be returned in ascending order");
+        for (var i = 0; i < 25; i++) {
+            assertEquals(expected[expected.length - 1 - i], largest.get(i), "A reversed comparator should return the largest values first");
+        }
+        var first = Arrays.copyOf(arr, 10);
+        Arrays.sort(first);
+        assertArrayEquals(first, all, "Every value should be returned when there are fewer than k");
+        assertThrows(IllegalArgumentException.class, () -> PartialSort.select(new int[3], 3),
+                "An IllegalArgumentException should be thrown when k is out of bounds");
+    }
+
+    @Test
+    public void testPartialSortWhenTopKQueriedMidStreamThenReturnSmallestSoFar() {
+        // Arrange
+        var arr = Utils.createRandomIntArray(10_000, -1_000_000, 1_000_000);
+        var top = new PartialSort.IntTopK(25);
+        var largest = new PartialSort.TopK<Integer>(25, Comparator.reverseOrder());
+
+        // Act & Assert
+        int[] first = null;
+        for (var i = 0; i < arr.length; i++) {
+            top.add(arr[i]);
+            largest.add(arr[i]);
+
+            if (i == 9 || i == 4_999 || i == arr.length - 1) {
+                var seen = Arrays.copyOf(arr, i + 1);
+                Arrays.sort(seen);
+                var snapshot = top.snapshot();
+                assertArrayEquals(Arrays.copyOf(seen, Math.min(25, seen.length)), snapshot,
+                        "The snapshot should hold the smallest values added so far, in ascending order");
+                assertEquals(snapshot.length, top.size(), "The size should match the snapshot");
+                for (var j = 0; j < largest.size(); j++) {
+                    assertEquals(seen[seen.length - 1 - j], largest.snapshot().get(j), "A reversed comparator should hold the largest values");
+                }
+                if (first == null) first = snapshot;
+            }
+        }
+        assertEquals(10, first.length, "A snapshot taken before k values were added should hold all of them");
+        assertThrows(IllegalArgumentException.class, () -> new PartialSort.IntTopK(-1),
+                "An IllegalArgumentException should be thrown when k is negative");
+    }
+
+    @Test
+    public void testArgSortWhenCoSortingParallelArraysThenPayloadsFollowKeysStably() {
+        // Arrange
+        var keys = Utils.createRandomIntArray(3_000, -20, 20);
+        var positions = new long[keys.length];
+        var labels = new String[keys.length];
+        var flags = new boolean[keys.length];
+        var entries = new Entry[keys.length];
+        for (var i = 0; i < keys.length; i++) {
+            positions[i] = i;
+            labels[i] = "label" + i;
+            flags[i] = keys[i] % 2 == 0;
+            entries[i] = new Entry(keys[i], i);
+        }
+        var expected = entries.clone();
+        Arrays.sort(expected);
+
+        // Act
+        var intOrder = ArgSort.argsort(keys);
+        var longOrder = ArgSort.argsort(Arrays.stream(keys).asLongStream().toArray());
+        var objectOrder = ArgSort.argsort(entries);
+        ArgSort.coSort(keys, List.of(positions, labels, flags));
+
+        // Assert
+        for (var i = 0; i < keys.length; i++) {
+            int position = expected[i].position();
+            assertEquals(position, intOrder[i], "Int argsort should be stable");
+            assertEquals(position, longOrder[i], "Long argsort should be stable");
+            assertEquals(position, objectOrder[i], "Object argsort should be stable");
+            assertEquals(expected[i].key(), keys[i], "The keys should be sorted");
+            assertEquals(position, positions[i], "Long payloads should move with their keys");
+            assertEquals("label" + position, labels[i], "Object payloads should move with their keys");
+            assertEquals(keys[i] % 2 == 0, flags[i], "Other primitive payloads should move with their keys");
+        }
+    }
+
+    @Test
+    public void testArgSortWhenSingleObjectPayloadThenWholeArrayMovesWithKeys() {
+        // Arrange, a single String[] or int[][] is one payload, not a list of payloads
+        var keys = new int[]{3, 1, 2};
+        var names = new String[]{"c", "a", "b"};
+        var longKeys = new long[]{30, 10, 20};
+        var rows = new int[][]{{3, 3, 3}, {1, 1, 1}, {2, 2, 2}};
+        var entries = new Entry[]{new Entry(2, 0), new Entry(0, 1), new Entry(1, 2)};
+        var labels = new String[]{"c", "a", "b"};
+        var permuted = new String[]{"c", "a", "b"};
+
+        // Act
+        ArgSort.coSort(keys, names);
+        ArgSort.coSort(longKeys, rows);
+        ArgSort.coSort(entries, Comparator.naturalOrder(), labels);
+        ArgSort.permute(new int[]{1, 2, 0}, permuted);
+
+        // Assert
+        assertArrayEquals(new int[]{1, 2, 3}, keys, "The keys should be sorted");
+        assertArrayEquals(new String[]{"a", "b", "c"}, names, "The strings should move with their keys");
+        assertArrayEquals(new long[]{10, 20, 30}, longKeys, "The long keys should be sorted");
+        assertArrayEquals(new int[][]{{1, 1, 1}, {2, 2, 2}, {3, 3, 3}}, rows, "The rows should move, not the entries of each row");
+        assertArrayEquals(new String[]{"a", "b", "c"}, labels, "The labels should move with the object keys");
+        assertArrayEquals(new String[]{"a", "b", "c"}, permuted, "permute should move the entries of a single array");
+    }
+
+    @Test
+    public void testArgSortWhenOrderIsNotAPermutationThenThrowIllegalArgumentException() {
+        // Arrange
+        var arr = new int[]{3, 1, 2};
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ArgSort.permute(new int[]{0, 1, 1}, arr),
+                "An IllegalArgumentException should be thrown when an index appears twice");
+        assertThrows(IllegalArgumentException.class, () -> ArgSort.coSort(arr, new double[2]),
+                "An IllegalArgumentException should be thrown when a payload has a different length");
+        assertArrayEquals(new int[]{3, 1, 2}, arr, "The array should not change when the arguments are rejected");
+    }
+
+    @Test
+    public void testSorterWhenInputsHaveDifferentFeaturesThenPickMatchingAlgorithmAndSort() {
+        // Arrange
+        var pool = new ForkJoinPool(1);
+        var parallelPool = new ForkJoinPool(4);
+        var sorter = new Sorter(pool);
+        var parallelSorter = new Sorter(parallelPool);
+        var tiny = Utils.createRandomIntArray(20, 0, 100);
+        var random = Utils.createRandomIntArray(50_000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        var longs = Utils.createRandomLongArray(50_000, Long.MIN_VALUE, Long.MAX_VALUE);
+        var nearlySorted = Utils.createRandomArray(50_000, 0, 1_000_000);
+        Arrays.sort(nearlySorted, 0, 49_900);
+        var fewKeys = Utils.createRandomArray(50_000, 0, 8);
+        var distinct = Utils.createRandomArray(50_000, 0, Integer.MAX_VALUE);
+        var large = Utils.createRandomArray(Sorter.PARALLEL_THRESHOLD, 0, Integer.MAX_VALUE);
+        var expectedInts = new int[][]{tiny.clone(), random.clone()};
+        var expectedLongs = longs.clone();
+        var expectedObjects = new Integer[][]{nearlySorted.clone(), fewKeys.clone(), distinct.clone(), large.clone()};
+        Arrays.stream(expectedInts).forEach(Arrays::sort);
+        Arrays.sort(expectedLongs);
+        Arrays.stream(expectedObjects).forEach(Arrays::sort);
+
+        // Act
+        List<Sorter.Decision> decisions;
+        try {
+            decisions = List.of(sorter.sort(tiny), sorter.sort(random), sorter.sort(longs), sorter.sort(nearlySorted),
+                    sorter.sort(fewKeys), sorter.sort(distinct), parallelSorter.sort(large));
+        } finally {
+            pool.shutdown();
+            parallelPool.shutdown();
+        }
+
+        // Assert
+        assertEquals(List.of(Sorter.Algorithm.INSERTION, Sorter.Algorithm.RADIX, Sorter.Algorithm.RADIX,
+                        Sorter.Algorithm.NATURAL_MERGE, Sorter.Algorithm.QUICK_3WAY, Sorter.Algorithm.QUICK,
+                        Sorter.Algorithm.PARALLEL_MERGE),
+                decisions.stream().map(Sorter.Decision::algorithm).toList(), "Each input should get the algorithm for its features");
+        assertEquals(4, decisions.get(6).features().cores(), "The cores should come from the pool");
+        assertEquals(ForkJoinPool.commonPool().getParallelism(), new Sorter().decide(large).features().cores(),
+                "The default sorter should use the parallelism of the common pool");
+        assertArrayEquals(expectedInts, new int[][]{tiny, random}, "Primitive arrays should be sorted");
+        assertArrayEquals(expectedLongs, longs, "Long arrays should be sorted");
+        assertArrayEquals(expectedObjects, new Integer[][]{nearlySorted, fewKeys, distinct, large}, "Object arrays should be sorted");
+    }
+
+    @Test
+    public void testOpCounterWhenInsertionSortsReversedArrayThenCountEveryComparison() {
+        // Arrange, counting is switched on for the tests in the pom
+        assumeTrue(Utils.COUNTING);
+        var reversed = new int[]{9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+        var boxed = Arrays.stream(reversed).boxed().toArray(Integer[]::new);
+
+        // Act
+        var primitive = count(() -> Insertion.sort(reversed.clone()));
+        var swapping = count(() -> Insertion.sort(boxed.clone()));
+        var shifting = count(() -> Insertion.sortShift(boxed.clone()));
+
+        // Assert, every entry is compared with, and moved past, each entry before it
+        assertEquals(45, primitive.getComparisons(), "The primitive sort should count its comparisons");
+        assertEquals(0, primitive.getSwaps(), "The primitive sort shifts instead of swapping");
+        assertEquals(45, swapping.getComparisons(), "The boxed sort should count its comparisons");
+        assertEquals(45, swapping.getSwaps(), "The boxed sort should swap once per comparison");
+        assertEquals(45, shifting.getComparisons(), "The shifting sort should count its comparisons");
+        assertEquals(0, shifting.getSwaps(), "The shifting sort should not swap");
+    }
+
+    @Test
+    public void testOpCounterWhenSortingPrimitivesAndBoxedThenSameCounts() {
+        // Arrange
+        assumeTrue(Utils.COUNTING);
+        var arr = Utils.createRandomIntArray(5_000, -1_000, 1_000);
+        var boxed = Arrays.stream(arr).boxed().toArray(Integer[]::new);
+        List<Consumer<int[]>> primitiveSorts = List.of(QuickSort::sort, QuickSort::introSort, QuickSort::sortDualPivot);
+        List<Consumer<Integer[]>> boxedSorts = List.of(QuickSort::sort, QuickSort::introSort, QuickSort::sortDualPivot);
+
+        // Act & Assert, the primitive versions partition exactly like the generic ones
+        for (var i = 0; i < primitiveSorts.size(); i++) {
+            var sort = i;
+            var primitive = count(() -> primitiveSorts.get(sort).accept(arr.clone()));
+            var generic = count(() -> boxedSorts.get(sort).accept(boxed.clone()));
+
+            assertTrue(primitive.getComparisons() > 0, "Primitive comparisons should be counted");
+            assertEquals(generic.getComparisons(), primitive.getComparisons(), "Both versions should compare as often");
+            assertEquals(generic.getSwaps(), primitive.getSwaps(), "Both versions should swap as often");
+            assertEquals(generic.getMaxDepth(), primitive.getMaxDepth(), "Both versions should recurse as deep");
+            assertTrue(primitive.getMaxDepth() > 0, "The recursion depth should be counted");
+        }
+        var threeWay = count(() -> QuickSort.sort3Way(arr.clone()));
+        assertTrue(threeWay.getComparisons() > 0 && threeWay.getMaxDepth() > 0, "3-way sort of primitives should be counted");
+    }
+
+    @Test
+    public void testOpCounterWhenMergeSortingThenCountAllocationsAndDepth() {
+        // Arrange
+        assumeTrue(Utils.COUNTING);
+        var arr = Utils.createRandomIntArray(1_024, 0, 100);
+        var boxed = Arrays.stream(arr).boxed().toArray(Integer[]::new);
+
+        // Act
+        var primitive = count(() -> MergeSort.sort(arr.clone()));
+        var bottomUp = count(() -> MergeSort.bottomUp(boxed.clone()));
+        var withBuffer = count(() -> MergeSort.withBuffer(boxed.clone()));
+        var reused = count(() -> MergeSort.bottomUp(boxed.clone(), new Integer[boxed.length]));
+
+        // Assert
+        assertEquals(1, primitive.getAllocations(), "The primitive sort should allocate a single aux array");
+        assertEquals(1_024, primitive.getAllocatedElements(), "The aux array should be as long as the input");
+        assertEquals(10, primitive.getMaxDepth(), "Halving 1024 entries down to 1 takes 10 levels");
+        assertEquals(1, bottomUp.getAllocations(), "Bottom up should count its buffer");
+        assertEquals(1, withBuffer.getAllocations(), "withBuffer should count its buffer");
+        assertEquals(0, reused.getAllocations(), "A buffer given by the caller should not be counted");
+        assertEquals(0, bottomUp.getMaxDepth(), "Bottom up should not recurse");
+    }
+
+    @Test
+    public void testOpCounterWhenSortsRunConcurrentlyThenEachCountsOnlyItsOwn() throws Exception {
+        // Arrange
+        assumeTrue(Utils.COUNTING);
+        var arr = Utils.createRandomIntArray(50_000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        var expected = count(() -> QuickSort.sort(arr.clone()));
+        var outer = new OpCounter();
+        var inner = new OpCounter();
+        var others = new OpCounter[4];
+        var threads = new Thread[others.length];
+        var pool = new ForkJoinPool(4);
+
+        // Act
+        try {
+            for (var i = 0; i < threads.length; i++) {
+                var counter = others[i] = new OpCounter();
+                threads[i] = new Thread(() -> counter.count(() -> QuickSort.sort(arr.clone())));
+                threads[i].start();
+            }
+            outer.count(() -> {
+                QuickSort.sort(arr.clone());
+                inner.count(() -> QuickSort.parallelSort(arr.clone(), pool, 1_024));
+            });
+            QuickSort.sort(arr.clone());
+            for (var thread : threads) {
+                thread.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertEquals(expected.getComparisons(), outer.getComparisons(), "The outer counter should not get the nested sort");
+        assertEquals(expected.getComparisons(), inner.getComparisons(), "The tasks of the parallel sort should count into its counter");
+        assertEquals(expected.getSwaps(), inner.getSwaps(), "The parallel sort partitions the same ranges as the sequential one");
+        for (var counter : others) {
+            assertEquals(expected.getComparisons(), counter.getComparisons(), "Sorts on other threads should not mix their counts");
+        }
+        assertNull(OpCounter.current(), "No counter should be left in place after count returns");
+    }
+
+    private static OpCounter count(Runnable sort) {
+        var counter = new OpCounter();
+        counter.count(sort);
+        return counter;
+    }
+
+    // Entries numbered in the order of the keys, so a stable sort keeps equal keys by position
+    private static Entry[] entries(int[] keys) {
+        var arr = new Entry[keys.length];
+        for (var i = 0; i < keys.length; i++) {
+            arr[i] = new Entry(keys[i], i);
+        }
+        return arr;
+    }
+
+    private record Entry(int key, int position) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            return Integer.compare(key, other.key);
+        }
+    }
+}